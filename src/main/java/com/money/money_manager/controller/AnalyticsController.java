@@ -0,0 +1,47 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.CategoryBreakdownDTO;
+import com.money.money_manager.dto.TimeSeriesDTO;
+import com.money.money_manager.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestHeader("userId") Long userId,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long categoryId) {
+        log.info("Fetching {} time series for user: {}", granularity, userId);
+        TimeSeriesDTO series = analyticsService.getTimeSeries(userId, granularity, from, to, type, categoryId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Time series retrieved successfully", series));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategoryBreakdown(
+            @RequestHeader("userId") Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Fetching category breakdown for user: {}", userId);
+        CategoryBreakdownDTO breakdown = analyticsService.getCategoryBreakdown(userId, from, to, type, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Category breakdown retrieved successfully", breakdown));
+    }
+}
@@ -2,7 +2,9 @@ package com.money.money_manager.controller;
 
 import com.money.money_manager.dto.ApiResponse;
 import com.money.money_manager.dto.BudgetDTO;
+import com.money.money_manager.dto.BudgetSnapshotDTO;
 import com.money.money_manager.dto.BudgetSummaryDTO;
+import com.money.money_manager.dto.CursorPageDTO;
 import com.money.money_manager.entity.User;
 import com.money.money_manager.service.BudgetService;
 import com.money.money_manager.service.UserService;
@@ -13,11 +15,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -57,6 +61,9 @@ import java.util.List;
  *     "totalElements": 1
  *   }
  * }
+ *
+ * GET /api/budgets?limit=20&cursor=...
+ * Response data: { "content": [...], "nextCursor": "...", "hasMore": true, "size": 20 }
  */
 @RestController
 @RequestMapping("/api/budgets")
@@ -74,20 +81,30 @@ public class BudgetController {
      * @param size Page size (default 10)
      * @param status Filter by status (ACTIVE, EXCEEDED, COMPLETED, PAUSED)
      * @param activeOnly Show only active/exceeded budgets (default false)
+     * @param cursor Keyset cursor from a previous page; with cursor or limit a keyset page is returned instead
+     * @param limit Keyset page size
      * @param authentication Current user authentication
      * @return Paginated list of budgets
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<BudgetSummaryDTO>>> getBudgets(
+    public ResponseEntity<?> getBudgets(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) List<String> status,
             @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication) {
         
         try {
             User currentUser = userService.findByUsername(authentication.getName());
             
+            if (cursor != null || limit != null) {
+                CursorPageDTO<BudgetSummaryDTO> budgets = budgetService.getUserBudgetsPage(
+                        currentUser, status, activeOnly, cursor, limit);
+                return ResponseEntity.ok(new ApiResponse<>(true, "Budgets retrieved successfully", budgets));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
             Page<BudgetSummaryDTO> budgets = budgetService.getUserBudgets(
                     currentUser, status, activeOnly, pageable);
@@ -105,14 +122,22 @@ public class BudgetController {
      * Get active budgets for user.
      */
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<Page<BudgetSummaryDTO>>> getActiveBudgets(
+    public ResponseEntity<?> getActiveBudgets(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication) {
         
         try {
             User currentUser = userService.findByUsername(authentication.getName());
             
+            if (cursor != null || limit != null) {
+                CursorPageDTO<BudgetSummaryDTO> budgets = budgetService.getUserBudgetsPage(
+                        currentUser, null, true, cursor, limit);
+                return ResponseEntity.ok(new ApiResponse<>(true, "Active budgets retrieved successfully", budgets));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
             Page<BudgetSummaryDTO> budgets = budgetService.getUserBudgets(
                     currentUser, null, true, pageable);
@@ -211,6 +236,29 @@ public class BudgetController {
         }
     }
 
+    /**
+     * Daily spend history of a budget, oldest first (default: last 90 days).
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<List<BudgetSnapshotDTO>>> getBudgetHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        
+        try {
+            User currentUser = userService.findByUsername(authentication.getName());
+            List<BudgetSnapshotDTO> history = budgetService.getBudgetHistory(id, currentUser, from, to);
+            
+            return ResponseEntity.ok(new ApiResponse<>(true, "Budget history retrieved successfully", history));
+            
+        } catch (Exception e) {
+            log.error("Error retrieving history for budget {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
     /**
      * Manually recalculate budget.
      */
@@ -0,0 +1,29 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.BudgetJobRunDTO;
+import com.money.money_manager.service.BudgetReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Monitoring for the nightly budget recalculation (Admin only).
+ */
+@RestController
+@RequestMapping("/api/admin/budget-jobs")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class BudgetJobController {
+
+    private final BudgetReconciliationService budgetReconciliationService;
+
+    @GetMapping("/latest")
+    public ResponseEntity<?> getLatestRun() {
+        BudgetJobRunDTO run = budgetReconciliationService.getLatestRun();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Budget job run retrieved successfully", run));
+    }
+}
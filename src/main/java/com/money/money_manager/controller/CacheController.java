@@ -0,0 +1,27 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.CacheStatsDTO;
+import com.money.money_manager.service.DashboardCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Monitoring for in-process caches (Admin only).
+ */
+@RestController
+@RequestMapping("/api/admin/caches")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    private final DashboardCache dashboardCache;
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboardCacheStats() {
+        CacheStatsDTO stats = dashboardCache.getStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Dashboard cache stats retrieved successfully", stats));
+    }
+}
@@ -1,6 +1,7 @@
 package com.money.money_manager.controller;
 
 import com.money.money_manager.dto.FinancialGoalDTO;
+import com.money.money_manager.dto.GoalStatisticsDTO;
 import com.money.money_manager.service.FinancialGoalService;
 import com.money.money_manager.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -118,9 +119,9 @@ public class FinancialGoalController {
      * Get goal statistics
      */
     @GetMapping("/statistics/summary")
-    public ResponseEntity<FinancialGoalService.GoalStatisticsDTO> getGoalStatistics(
+    public ResponseEntity<GoalStatisticsDTO> getGoalStatistics(
             @RequestHeader("userId") Long userId) {
-        FinancialGoalService.GoalStatisticsDTO statistics = financialGoalService.getGoalStatistics(userId);
+        GoalStatisticsDTO statistics = financialGoalService.getGoalStatistics(userId);
         return ResponseEntity.ok(statistics);
     }
 }
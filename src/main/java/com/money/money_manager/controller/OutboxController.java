@@ -0,0 +1,36 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.OutboxStatsDTO;
+import com.money.money_manager.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Monitoring for the side-effect outbox (Admin only).
+ */
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        OutboxStatsDTO stats = outboxService.getStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Outbox stats retrieved successfully", stats));
+    }
+
+    @PostMapping("/retry-failed")
+    public ResponseEntity<?> retryFailed() {
+        log.info("Re-queueing failed outbox events");
+        int count = outboxService.retryFailed();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Failed outbox events re-queued", count));
+    }
+}
@@ -0,0 +1,32 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.SyncResponseDTO;
+import com.money.money_manager.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@Slf4j
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<?> sync(
+            @RequestHeader("userId") Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Sync requested by user: {}", userId);
+        SyncResponseDTO changes = syncService.sync(userId, since, cursor, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Changes retrieved successfully", changes));
+    }
+}
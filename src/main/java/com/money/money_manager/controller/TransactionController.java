@@ -1,9 +1,14 @@
 package com.money.money_manager.controller;
 
 import com.money.money_manager.dto.ApiResponse;
+import com.money.money_manager.dto.BulkTransactionRequestDTO;
+import com.money.money_manager.dto.BulkTransactionResultDTO;
+import com.money.money_manager.dto.CursorPageDTO;
+import com.money.money_manager.dto.TagUsageDTO;
 import com.money.money_manager.dto.TransactionDTO;
 import com.money.money_manager.dto.TransactionSearchDTO;
 import com.money.money_manager.service.CsvService;
+import com.money.money_manager.service.IdempotencyService;
 import com.money.money_manager.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +21,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,17 +34,36 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final CsvService csvService;
+    private final IdempotencyService idempotencyService;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     @PostMapping
     public ResponseEntity<?> createTransaction(
             @RequestHeader("userId") Long userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody TransactionDTO transactionDTO) {
         log.info("Creating transaction for user: {}", userId);
-        TransactionDTO created = transactionService.createTransaction(userId, transactionDTO);
+        TransactionDTO created = idempotencyService.execute(userId, idempotencyKey,
+                "POST /api/transactions", transactionDTO, TransactionDTO.class,
+                () -> transactionService.createTransaction(userId, transactionDTO));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, "Transaction created successfully", created));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createTransactionsBulk(
+            @RequestHeader("userId") Long userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BulkTransactionRequestDTO request) {
+        log.info("Creating {} transactions in bulk for user: {}", request.getTransactions().size(), userId);
+        BulkTransactionResultDTO result = idempotencyService.execute(userId, idempotencyKey,
+                "POST /api/transactions/bulk", request, BulkTransactionResultDTO.class,
+                () -> transactionService.createTransactionsBulk(userId, request.getTransactions()));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse<>(true, "Transactions created successfully", result));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getTransaction(
             @RequestHeader("userId") Long userId,
@@ -49,7 +74,15 @@ public class TransactionController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getUserTransactions(@RequestHeader("userId") Long userId) {
+    public ResponseEntity<?> getUserTransactions(
+            @RequestHeader("userId") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            log.info("Fetching transaction page for user: {}", userId);
+            CursorPageDTO<TransactionDTO> page = transactionService.getUserTransactionsPage(userId, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Transactions retrieved successfully", page));
+        }
         log.info("Fetching all transactions for user: {}", userId);
         List<TransactionDTO> transactions = transactionService.getUserTransactions(userId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Transactions retrieved successfully", transactions));
@@ -69,9 +102,12 @@ public class TransactionController {
     public ResponseEntity<?> updateTransaction(
             @RequestHeader("userId") Long userId,
             @PathVariable Long id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody TransactionDTO transactionDTO) {
         log.info("Updating transaction with ID: {}", id);
-        TransactionDTO updated = transactionService.updateTransaction(userId, id, transactionDTO);
+        TransactionDTO updated = idempotencyService.execute(userId, idempotencyKey,
+                "PUT /api/transactions/" + id, transactionDTO, TransactionDTO.class,
+                () -> transactionService.updateTransaction(userId, id, transactionDTO));
         return ResponseEntity.ok(new ApiResponse<>(true, "Transaction updated successfully", updated));
     }
 
@@ -100,10 +136,17 @@ public class TransactionController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Tags retrieved successfully", tags));
     }
     
+    @GetMapping("/tags/usage")
+    public ResponseEntity<?> getTagUsage(@RequestHeader("userId") Long userId) {
+        log.info("Fetching tag usage for user: {}", userId);
+        List<TagUsageDTO> usage = transactionService.getTagUsage(userId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Tag usage retrieved successfully", usage));
+    }
+    
     @GetMapping("/export")
-    public ResponseEntity<String> exportTransactions(@RequestHeader("userId") Long userId) {
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestHeader("userId") Long userId) {
         log.info("Exporting transactions for user: {}", userId);
-        String csvContent = csvService.exportTransactionsToCsv(userId);
+        StreamingResponseBody body = outputStream -> csvService.writeTransactionsCsv(userId, outputStream);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -111,7 +154,7 @@ public class TransactionController {
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvContent);
+                .body(body);
     }
     
     @PostMapping("/import")
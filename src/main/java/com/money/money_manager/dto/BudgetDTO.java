@@ -45,6 +45,12 @@ public class BudgetDTO {
     @Max(value = 100, message = "Threshold percent cannot exceed 100")
     private Integer thresholdPercent = 80;
 
+    // MONTHLY, QUARTERLY or YEARLY to have the next period created when this one ends
+    @Pattern(regexp = "NONE|MONTHLY|QUARTERLY|YEARLY", message = "Recurrence must be NONE, MONTHLY, QUARTERLY or YEARLY")
+    private String recurrence;
+
+    private boolean carryOver;
+
     @AssertTrue(message = "End date must be after start date")
     public boolean isEndDateAfterStartDate() {
         if (startDate == null || endDate == null) {
@@ -0,0 +1,28 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a nightly budget recalculation run with its per-shard timings.
+ * maxShardMillis is the slowest shard, which bounds the run time on a wide enough pool.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetJobRunDTO {
+    private LocalDate runDate;
+    private boolean running;
+    private int totalShards;
+    private int doneShards;
+    private int failedShards;
+    private long budgetsChecked;
+    private long budgetsUpdated;
+    private long totalShardMillis;
+    private long maxShardMillis;
+    @Builder.Default
+    private List<BudgetJobShardDTO> shards = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress and timing of one user-id shard of a budget recalculation run.
+ * durationMs is summed over resumed attempts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetJobShardDTO {
+    private Long fromUserId;
+    private Long toUserId;
+    private String status;
+    private Long lastBudgetId;
+    private long budgetsChecked;
+    private long budgetsUpdated;
+    private int attempts;
+    private long durationMs;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
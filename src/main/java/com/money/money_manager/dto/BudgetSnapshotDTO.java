@@ -0,0 +1,18 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One point of a budget's spend history, as of the end of date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetSnapshotDTO {
+    private LocalDate date;
+    private BigDecimal spentAmount;
+    private BigDecimal limitAmount;
+}
@@ -1,5 +1,6 @@
 package com.money.money_manager.dto;
 
+import com.money.money_manager.entity.Budget;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,9 @@ import java.time.LocalDateTime;
 /**
  * DTO for budget summary responses to frontend.
  * Contains calculated fields like percentUsed.
+ * The forecast fields (averageDailySpend, projectedSpend, dailyAllowance and
+ * projectedExceedDate) are filled on list responses only; projectedExceedDate
+ * is null when the limit is not expected to be crossed this period.
  */
 @Data
 @NoArgsConstructor
@@ -36,4 +40,44 @@ public class BudgetSummaryDTO {
     private LocalDateTime updatedAt;
     private boolean isPeriodActive;
     private boolean isThresholdExceeded;
+    private String recurrence;
+    private boolean carryOver;
+    private BigDecimal carriedOverAmount;
+    private BigDecimal averageDailySpend;
+    private BigDecimal projectedSpend;
+    private BigDecimal dailyAllowance;
+    private LocalDate projectedExceedDate;
+
+    /**
+     * Constructor used by JPQL constructor expressions in BudgetRepository.
+     * percentUsed comes from SQL; the flags are derived from it and the dates.
+     */
+    public BudgetSummaryDTO(Long id, String name, String description, Long categoryId, String categoryName,
+                            BigDecimal limitAmount, BigDecimal spentAmount, BigDecimal percentUsed,
+                            Budget.BudgetStatus status, LocalDate startDate, LocalDate endDate,
+                            Integer thresholdPercent, LocalDateTime lastAlertSentAt,
+                            LocalDateTime createdAt, LocalDateTime updatedAt,
+                            Budget.Recurrence recurrence, boolean carryOver, BigDecimal carriedOverAmount) {
+        LocalDate today = LocalDate.now();
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.limitAmount = limitAmount;
+        this.spentAmount = spentAmount;
+        this.percentUsed = percentUsed != null ? percentUsed : BigDecimal.ZERO;
+        this.status = status.name();
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.thresholdPercent = thresholdPercent;
+        this.lastAlertSentAt = lastAlertSentAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.isPeriodActive = !today.isBefore(startDate) && !today.isAfter(endDate);
+        this.isThresholdExceeded = this.percentUsed.compareTo(BigDecimal.valueOf(thresholdPercent)) >= 0;
+        this.recurrence = recurrence.name();
+        this.carryOver = carryOver;
+        this.carriedOverAmount = carriedOverAmount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.money.money_manager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransactionRequestDTO {
+
+    @NotEmpty(message = "At least one transaction is required")
+    @Size(max = 5000, message = "At most 5000 transactions can be created per request")
+    private List<@Valid TransactionDTO> transactions;
+}
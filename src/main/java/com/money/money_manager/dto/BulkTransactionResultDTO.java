@@ -0,0 +1,13 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransactionResultDTO {
+    private int createdCount;
+    private List<Long> ids;
+}
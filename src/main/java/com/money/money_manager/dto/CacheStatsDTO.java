@@ -0,0 +1,21 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    // Entries pushed out by the size bound, and entries found past their time to live
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+}
@@ -0,0 +1,27 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryBreakdownDTO {
+    private String type;
+    private LocalDate from;
+    private LocalDate to;
+    // The period of the same length directly before from
+    private LocalDate previousFrom;
+    private LocalDate previousTo;
+    private BigDecimal total;
+    private BigDecimal previousTotal;
+    private BigDecimal changePercent;
+    // Top categories by amount, largest first
+    private List<CategorySpendDTO> categories;
+    // Everything outside the top categories; null when there is nothing left over
+    private CategorySpendDTO other;
+}
@@ -0,0 +1,23 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategorySpendDTO {
+    private Long categoryId; // null for the "other" bucket
+    private String categoryName;
+    private String color;
+    private String icon;
+    private BigDecimal amount;
+    private BigDecimal previousAmount;
+    private long transactionCount;
+    // Percent of the period total
+    private BigDecimal sharePercent;
+    // Percent change against the previous period; null when nothing was spent then
+    private BigDecimal changePercent;
+}
@@ -0,0 +1,19 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * Keyset (seek) page of results.
+ * nextCursor is opaque to clients and is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+}
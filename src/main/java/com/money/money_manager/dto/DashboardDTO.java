@@ -14,12 +14,18 @@ public class DashboardDTO {
     private BigDecimal balance;
     private BigDecimal budgetLimit;
     private BigDecimal budgetSpent;
-    private int totalTransactions;
-    private int totalBudgets;
-    private int activeBudgets;
-    private int exceededBudgets;
+    // Counts are null when their section is unavailable
+    private Integer totalTransactions;
+    private Integer totalBudgets;
+    private Integer activeBudgets;
+    private Integer exceededBudgets;
     private List<TransactionDTO> recentTransactions;
     private List<BudgetDTO> upcomingBudgets;
     private Double incomePercentage;
     private Double expensePercentage;
+    private GoalStatisticsDTO goalStatistics;
+    private Long unreadNotifications;
+    // True when some sections did not load in time; they are listed in unavailableSections
+    private boolean partial;
+    private List<String> unavailableSections;
 }
@@ -0,0 +1,20 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * Goal counts and overall progress for a user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalStatisticsDTO {
+    private long totalGoals;
+    private long completedGoals;
+    private long activeGoals;
+    private BigDecimal totalTargetAmount;
+    private BigDecimal totalCurrentAmount;
+    private double overallProgress;
+}
@@ -0,0 +1,29 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+/**
+ * Outbox health: backlog by status and worker counters since startup.
+ * oldestPendingSeconds is the current lag; lastLagMillis is the write-to-processed
+ * delay of the most recently completed event. coalescingRatio is events processed
+ * per budget pass; values above 1 mean bursts were merged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxStatsDTO {
+    private long pending;
+    private long processing;
+    private long failed;
+    private long oldestPendingSeconds;
+    private long processedTotal;
+    private long retriedTotal;
+    private long failedTotal;
+    private long lastLagMillis;
+    private int activeWorkers;
+    private long budgetPasses;
+    private long budgetUpdates;
+    private long coalescedEvents;
+    private double coalescingRatio;
+}
@@ -0,0 +1,34 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of changes for GET /api/sync.
+ * While hasMore is true, pass nextCursor back as cursor. Once it is false,
+ * keep watermark and send it as since on the next sync.
+ * fullResync means since was older than the tombstone retention window;
+ * the client should drop its local copy, since deletions may have been missed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncResponseDTO {
+    @Builder.Default
+    private List<TransactionDTO> transactions = new ArrayList<>();
+    @Builder.Default
+    private List<CategoryDTO> categories = new ArrayList<>();
+    @Builder.Default
+    private List<BudgetSummaryDTO> budgets = new ArrayList<>();
+    @Builder.Default
+    private List<FinancialGoalDTO> goals = new ArrayList<>();
+    @Builder.Default
+    private List<SyncTombstoneDTO> deleted = new ArrayList<>();
+    private LocalDateTime watermark;
+    private String nextCursor;
+    private boolean hasMore;
+    private boolean fullResync;
+}
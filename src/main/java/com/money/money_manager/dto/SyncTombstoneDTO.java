@@ -0,0 +1,14 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncTombstoneDTO {
+    private String entityType;
+    private Long entityId;
+    private LocalDateTime deletedAt;
+}
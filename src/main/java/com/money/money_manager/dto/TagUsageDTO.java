@@ -0,0 +1,12 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TagUsageDTO {
+    private String name;
+    private long usageCount;
+}
@@ -0,0 +1,24 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesDTO {
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private String type;
+    private Long categoryId;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpense;
+    private BigDecimal net;
+    // One point per bucket in the range, oldest first; empty buckets are zero
+    private List<TimeSeriesPointDTO> points;
+}
@@ -0,0 +1,22 @@
+package com.money.money_manager.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one time-series bucket. bucketStart is the first day of the
+ * calendar day, week (Monday) or month the bucket covers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesPointDTO {
+    private LocalDate bucketStart;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+    private long transactionCount;
+}
@@ -0,0 +1,44 @@
+package com.money.money_manager.dto;
+
+import com.money.money_manager.entity.Transaction;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox payload for transaction writes: the rows as they were before and after.
+ * before is empty for creates and after is empty for deletes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionChangeDTO {
+    @Builder.Default
+    private List<TransactionSnapshot> before = new ArrayList<>();
+    @Builder.Default
+    private List<TransactionSnapshot> after = new ArrayList<>();
+    // Set by OutboxWorker from the event's creation time
+    private LocalDateTime changedAt;
+
+    public static TransactionChangeDTO created(List<Transaction> transactions) {
+        return TransactionChangeDTO.builder()
+                .after(transactions.stream().map(TransactionSnapshot::from).collect(Collectors.toList()))
+                .build();
+    }
+
+    public static TransactionChangeDTO updated(TransactionSnapshot before, Transaction after) {
+        return TransactionChangeDTO.builder()
+                .before(new ArrayList<>(List.of(before)))
+                .after(new ArrayList<>(List.of(TransactionSnapshot.from(after))))
+                .build();
+    }
+
+    public static TransactionChangeDTO deleted(TransactionSnapshot before) {
+        return TransactionChangeDTO.builder()
+                .before(new ArrayList<>(List.of(before)))
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.money.money_manager.dto;
 
+import com.money.money_manager.entity.Transaction;
 import lombok.*;
 import jakarta.validation.constraints.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
@@ -47,4 +49,32 @@ public class TransactionDTO {
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
+
+    /**
+     * Constructor used by JPQL constructor expressions in TransactionRepository.
+     */
+    public TransactionDTO(Long id, String title, String description, BigDecimal amount,
+                          Transaction.TransactionType type, Long categoryId, String categoryName,
+                          LocalDate transactionDate, String paymentMethod, String receiptUrl, String tags,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, description, amount, type.name(), categoryId, categoryName, transactionDate,
+                paymentMethod, receiptUrl, tags, createdAt, updatedAt);
+    }
+
+    public static TransactionDTO fromEntity(Transaction transaction) {
+        return new TransactionDTO(
+                transaction.getId(),
+                transaction.getTitle(),
+                transaction.getDescription(),
+                transaction.getAmount(),
+                transaction.getType(),
+                transaction.getCategory().getId(),
+                transaction.getCategory().getName(),
+                transaction.getTransactionDate(),
+                transaction.getPaymentMethod(),
+                transaction.getReceiptUrl(),
+                transaction.getTags(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt());
+    }
 }
@@ -0,0 +1,24 @@
+package com.money.money_manager.dto;
+
+import com.money.money_manager.entity.Transaction;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat row for CSV export, filled by a JPQL constructor expression
+ * so the category name comes from the same query as the transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionExportRow {
+    private String title;
+    private String description;
+    private BigDecimal amount;
+    private Transaction.TransactionType type;
+    private String categoryName;
+    private LocalDate transactionDate;
+    private String paymentMethod;
+    private String tags;
+}
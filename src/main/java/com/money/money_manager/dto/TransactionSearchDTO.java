@@ -11,6 +11,7 @@ import java.util.List;
 @Builder
 public class TransactionSearchDTO {
     private String searchTerm;
+    private boolean fullText; // use the full-text index: prefix matching, relevance ordering
     private LocalDate startDate;
     private LocalDate endDate;
     private BigDecimal minAmount;
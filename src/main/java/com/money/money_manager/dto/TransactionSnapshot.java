@@ -0,0 +1,32 @@
+package com.money.money_manager.dto;
+
+import com.money.money_manager.entity.Transaction;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The fields of a transaction that its side effects (budgets, goals) depend on,
+ * captured at write time for the outbox.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSnapshot {
+    private Long id;
+    private Transaction.TransactionType type;
+    private Long categoryId;
+    private BigDecimal amount;
+    private LocalDate transactionDate;
+
+    public static TransactionSnapshot from(Transaction transaction) {
+        return TransactionSnapshot.builder()
+                .id(transaction.getId())
+                .type(transaction.getType())
+                .categoryId(transaction.getCategory().getId())
+                .amount(transaction.getAmount())
+                .transactionDate(transaction.getTransactionDate())
+                .build();
+    }
+}
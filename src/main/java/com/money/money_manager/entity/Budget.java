@@ -2,6 +2,7 @@ package com.money.money_manager.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -10,17 +11,25 @@ import java.time.LocalDateTime;
 /**
  * Budget entity for tracking spending limits.
  * Uses BigDecimal for precise money calculations.
+ * Updates write only the changed columns, so the spend paths, which set the spent
+ * amount and status on a budget loaded earlier, keep a concurrent edit of its name,
+ * limit or dates.
  */
 @Entity
 @Table(name = "budgets")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Budget {
 
+    // Table generator rather than IDENTITY so the rollover job's inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "budget_id_generator")
+    @TableGenerator(name = "budget_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "budgets", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -62,6 +71,35 @@ public class Budget {
     @Column(name = "last_alert_sent_at")
     private LocalDateTime lastAlertSentAt;
 
+    // When spentAmount was last summed from transactions. Writes made before this
+    // are already counted, so their deltas are skipped (see BudgetService.onTransactionsChanged).
+    @Column(name = "spent_recalculated_at")
+    private LocalDateTime spentRecalculatedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Recurrence recurrence = Recurrence.NONE;
+
+    // Add the previous period's unspent amount to the next period's limit on rollover
+    @Column(name = "carry_over", nullable = false)
+    @Builder.Default
+    private boolean carryOver = false;
+
+    // Part of limitAmount carried in from the previous period
+    @Column(name = "carried_over_amount", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal carriedOverAmount = BigDecimal.ZERO;
+
+    // Start of the series' first period. Later periods are counted from it so a start on
+    // the 31st comes back after short months; null on budgets created before it was kept.
+    @Column(name = "anchor_date")
+    private LocalDate anchorDate;
+
+    // Set once the next period's budget has been created from this one
+    @Column(name = "rolled_over_at")
+    private LocalDateTime rolledOverAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -79,6 +117,23 @@ public class Budget {
         ACTIVE, EXCEEDED, COMPLETED, PAUSED
     }
 
+    public enum Recurrence {
+        NONE(0), MONTHLY(1), QUARTERLY(3), YEARLY(12);
+
+        private final int months;
+
+        Recurrence(int months) {
+            this.months = months;
+        }
+
+        /**
+         * Start of the index-th period of a series whose first period starts at anchor.
+         */
+        public LocalDate periodStart(LocalDate anchor, int index) {
+            return anchor.plusMonths((long) index * months);
+        }
+    }
+
     /**
      * Calculate percentage of budget used.
      * 
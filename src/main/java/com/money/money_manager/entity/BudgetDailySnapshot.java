@@ -0,0 +1,45 @@
+package com.money.money_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A budget's spent amount and limit as of the end of one day.
+ * Keyed by (budgetId, snapshotDate) so a budget's history is one primary-key range.
+ */
+@Entity
+@Table(name = "budget_daily_snapshots")
+@IdClass(BudgetDailySnapshot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetDailySnapshot {
+
+    @Id
+    @Column(name = "budget_id")
+    private Long budgetId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "spent_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal spentAmount;
+
+    @Column(name = "limit_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal limitAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long budgetId;
+        private LocalDate snapshotDate;
+    }
+}
@@ -0,0 +1,76 @@
+package com.money.money_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one shard (a user-id range) of a nightly budget reconciliation run.
+ * lastBudgetId advances with each committed chunk, so an interrupted run resumes
+ * from there instead of starting over.
+ */
+@Entity
+@Table(name = "budget_job_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_budget_job_checkpoints_shard", columnNames = {"run_date", "from_user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetJobCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    // Inclusive user-id range covered by this shard
+    @Column(name = "from_user_id", nullable = false)
+    private Long fromUserId;
+
+    @Column(name = "to_user_id", nullable = false)
+    private Long toUserId;
+
+    @Column(name = "last_budget_id", nullable = false)
+    @Builder.Default
+    private Long lastBudgetId = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "budgets_checked", nullable = false)
+    @Builder.Default
+    private int budgetsChecked = 0;
+
+    @Column(name = "budgets_updated", nullable = false)
+    @Builder.Default
+    private int budgetsUpdated = 0;
+
+    // Times the shard was started (first run plus resumes)
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    // Time spent processing, summed over resumed attempts
+    @Column(name = "duration_ms", nullable = false)
+    @Builder.Default
+    private long durationMs = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
@@ -0,0 +1,47 @@
+package com.money.money_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running (sum, count) of a user's transactions per month, category and type.
+ * Maintained by RollupService in the same transaction as every transaction write,
+ * so range totals only have to read raw rows for partial months at the edges.
+ */
+@Entity
+@Table(name = "monthly_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollups_key",
+        columnNames = {"user_id", "month_start", "category_id", "type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month the row covers
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Transaction.TransactionType type;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long txnCount = 0;
+}
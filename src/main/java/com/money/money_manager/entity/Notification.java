@@ -6,8 +6,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "notifications")
 public class Notification {
+    // Table generator rather than IDENTITY so Hibernate can batch alert inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id_generator")
+    @TableGenerator(name = "notification_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "notifications", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
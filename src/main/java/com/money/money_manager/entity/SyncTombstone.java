@@ -0,0 +1,49 @@
+package com.money.money_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted row, so delta sync clients learn about deletions.
+ * Written by the delete paths; purged by SyncService after the retention window.
+ */
+@Entity
+@Table(name = "sync_tombstones", indexes = @Index(name = "idx_sync_tombstones_user_deleted",
+        columnList = "user_id, deleted_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Builder.Default
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt = LocalDateTime.now();
+
+    public enum EntityType {
+        TRANSACTION, CATEGORY, BUDGET, GOAL
+    }
+
+    public static SyncTombstone of(Long userId, EntityType entityType, Long entityId) {
+        return SyncTombstone.builder()
+                .userId(userId)
+                .entityType(entityType)
+                .entityId(entityId)
+                .build();
+    }
+}
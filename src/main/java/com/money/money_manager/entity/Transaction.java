@@ -5,6 +5,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "transactions")
@@ -14,8 +16,13 @@ import java.math.BigDecimal;
 @Builder
 public class Transaction {
 
+    // Table-backed pooled ids instead of IDENTITY so Hibernate can batch inserts.
+    // The generator row is seeded at startup by IdGeneratorSeeder.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id_generator")
+    @TableGenerator(name = "transaction_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "transactions", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -50,6 +57,16 @@ public class Transaction {
     @Column(columnDefinition = "TEXT")
     private String tags;
 
+    // Normalized form of tags, kept in sync by TagService
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "transaction_tags",
+            joinColumns = @JoinColumn(name = "transaction_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Tag> tagSet = new HashSet<>();
+
     @Builder.Default
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
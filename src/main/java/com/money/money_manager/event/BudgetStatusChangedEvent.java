@@ -0,0 +1,37 @@
+package com.money.money_manager.event;
+
+import com.money.money_manager.entity.Budget;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published when a budget's status changes, with the values it changed to.
+ * Listeners that act on it should run after commit, see BudgetAlertService.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetStatusChangedEvent {
+    private Long budgetId;
+    private Long userId;
+    private Budget.BudgetStatus oldStatus;
+    private Budget.BudgetStatus newStatus;
+    private BigDecimal spentAmount;
+    private BigDecimal limitAmount;
+    private LocalDateTime occurredAt;
+
+    public static BudgetStatusChangedEvent of(Budget budget, Budget.BudgetStatus oldStatus) {
+        return BudgetStatusChangedEvent.builder()
+                .budgetId(budget.getId())
+                .userId(budget.getUser().getId())
+                .oldStatus(oldStatus)
+                .newStatus(budget.getStatus())
+                .spentAmount(budget.getSpentAmount())
+                .limitAmount(budget.getLimitAmount())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.money.money_manager.event;
+
+import lombok.*;
+
+/**
+ * Published when a write changes data shown on a user's dashboard: transaction
+ * totals, budgets, goals, category names or unread notifications. Listeners should run after commit,
+ * see DashboardCache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDataChangedEvent {
+    private Long userId;
+    private Source source;
+
+    public enum Source {
+        TRANSACTIONS, BUDGETS, GOALS, CATEGORIES, NOTIFICATIONS
+    }
+
+    public static UserDataChangedEvent of(Long userId, Source source) {
+        return new UserDataChangedEvent(userId, source);
+    }
+}
@@ -0,0 +1,23 @@
+package com.money.money_manager.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An Idempotency-Key that cannot be honoured: still in flight (409)
+ * or already used for a different request (422).
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(String message, HttpStatus status) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
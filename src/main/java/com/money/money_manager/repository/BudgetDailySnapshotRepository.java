@@ -0,0 +1,34 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.BudgetDailySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetDailySnapshotRepository extends JpaRepository<BudgetDailySnapshot, BudgetDailySnapshot.Key> {
+
+    /**
+     * Write the budgets' current spent amount and limit as their snapshot for day,
+     * replacing any earlier snapshot of that day. One statement for all ids.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO budget_daily_snapshots (budget_id, snapshot_date, spent_amount, limit_amount) " +
+            "SELECT * FROM (SELECT b.id, :day AS snapshot_date, b.spent_amount, b.limit_amount " +
+            "FROM budgets b WHERE b.id IN (:ids)) AS new " +
+            "ON DUPLICATE KEY UPDATE spent_amount = new.spent_amount, limit_amount = new.limit_amount",
+            nativeQuery = true)
+    int upsertFromBudgets(@Param("ids") Collection<Long> ids, @Param("day") LocalDate day);
+
+    @Query("SELECT s FROM BudgetDailySnapshot s WHERE s.budgetId = :budgetId " +
+            "AND s.snapshotDate BETWEEN :from AND :to ORDER BY s.snapshotDate")
+    List<BudgetDailySnapshot> findRange(@Param("budgetId") Long budgetId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+}
@@ -0,0 +1,53 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.BudgetJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetJobCheckpointRepository extends JpaRepository<BudgetJobCheckpoint, Long> {
+
+    List<BudgetJobCheckpoint> findByRunDateOrderByFromUserId(LocalDate runDate);
+
+    @Query("SELECT MAX(c.runDate) FROM BudgetJobCheckpoint c")
+    Optional<LocalDate> findLatestRunDate();
+
+    /**
+     * Record a committed chunk. Runs in the chunk's transaction, so progress and
+     * the budget updates it covers commit together.
+     */
+    @Modifying
+    @Query("UPDATE BudgetJobCheckpoint c SET c.lastBudgetId = :lastBudgetId, " +
+            "c.budgetsChecked = c.budgetsChecked + :checked, c.budgetsUpdated = c.budgetsUpdated + :updated " +
+            "WHERE c.id = :id")
+    int advance(@Param("id") Long id,
+                @Param("lastBudgetId") Long lastBudgetId,
+                @Param("checked") int checked,
+                @Param("updated") int updated);
+
+    @Modifying
+    @Query("UPDATE BudgetJobCheckpoint c SET c.status = 'RUNNING', c.lastError = NULL, c.attempts = c.attempts + 1, " +
+            "c.startedAt = COALESCE(c.startedAt, :now) WHERE c.id = :id")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BudgetJobCheckpoint c SET c.status = :status, c.durationMs = c.durationMs + :elapsedMs, " +
+            "c.lastError = :error, c.completedAt = :completedAt WHERE c.id = :id")
+    int finish(@Param("id") Long id,
+               @Param("status") BudgetJobCheckpoint.Status status,
+               @Param("elapsedMs") long elapsedMs,
+               @Param("error") String error,
+               @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM BudgetJobCheckpoint c WHERE c.runDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -1,21 +1,62 @@
 package com.money.money_manager.repository;
 
+import com.money.money_manager.dto.BudgetSummaryDTO;
 import com.money.money_manager.entity.Budget;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
+       /**
+        * Summary projection with the category name joined and percent used computed in SQL,
+        * shared by the list endpoints. Avoids loading entities and the per-row lazy category fetch.
+        */
+       String SUMMARY_SELECT = "SELECT new com.money.money_manager.dto.BudgetSummaryDTO(" +
+                     "b.id, b.name, b.description, c.id, COALESCE(c.name, 'All Categories'), " +
+                     "b.limitAmount, b.spentAmount, ROUND(b.spentAmount * 100 / NULLIF(b.limitAmount, 0), 2), " +
+                     "b.status, b.startDate, b.endDate, b.thresholdPercent, b.lastAlertSentAt, " +
+                     "b.createdAt, b.updatedAt, b.recurrence, b.carryOver, b.carriedOverAmount) " +
+                     "FROM Budget b LEFT JOIN b.category c ";
+
+       @Query(value = SUMMARY_SELECT + "WHERE b.user.id = :userId AND b.status IN :statuses",
+                     countQuery = "SELECT COUNT(b) FROM Budget b WHERE b.user.id = :userId AND b.status IN :statuses")
+       Page<BudgetSummaryDTO> findSummariesByUserIdAndStatusIn(@Param("userId") Long userId,
+                     @Param("statuses") Collection<Budget.BudgetStatus> statuses,
+                     Pageable pageable);
+
+       // Keyset pages ordered by (createdAt, id), newest first; no count query is issued
+       @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId AND b.status IN :statuses " +
+                     "ORDER BY b.createdAt DESC, b.id DESC")
+       List<BudgetSummaryDTO> findFirstSummaryPage(@Param("userId") Long userId,
+                     @Param("statuses") Collection<Budget.BudgetStatus> statuses,
+                     Pageable pageable);
+
+       @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId AND b.status IN :statuses " +
+                     "AND (b.createdAt < :lastCreatedAt OR (b.createdAt = :lastCreatedAt AND b.id < :lastId)) " +
+                     "ORDER BY b.createdAt DESC, b.id DESC")
+       List<BudgetSummaryDTO> findSummaryPageAfter(@Param("userId") Long userId,
+                     @Param("statuses") Collection<Budget.BudgetStatus> statuses,
+                     @Param("lastCreatedAt") LocalDateTime lastCreatedAt,
+                     @Param("lastId") Long lastId,
+                     Pageable pageable);
+
+       @Query(SUMMARY_SELECT + "WHERE b.user.id = :userId AND b.status = :status ORDER BY b.createdAt DESC")
+       List<BudgetSummaryDTO> findSummariesByUserIdAndStatus(@Param("userId") Long userId,
+                     @Param("status") Budget.BudgetStatus status);
+
        /**
         * Find all budgets for a user.
         */
@@ -25,58 +66,217 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
        long countByUserIdAndStatusIn(Long userId, List<Budget.BudgetStatus> statuses);
 
-       /**
-        * Find all budgets for a user with optional status filter.
-        */
-       Page<Budget> findByUserIdAndStatusIn(Long userId, List<Budget.BudgetStatus> statuses, Pageable pageable);
-
        /**
         * Find budget by ID and user ID for security.
         */
        Optional<Budget> findByIdAndUserId(Long id, Long userId);
 
-       /**
-        * Find active budgets for user in date range.
-        */
-       @Query("SELECT b FROM Budget b WHERE b.user.id = :userId " +
-                     "AND b.status IN ('ACTIVE', 'EXCEEDED') " +
-                     "AND b.startDate <= :endDate AND b.endDate >= :startDate")
-       List<Budget> findActiveBudgetsInDateRange(@Param("userId") Long userId,
-                     @Param("startDate") LocalDate startDate,
-                     @Param("endDate") LocalDate endDate);
+       boolean existsByIdAndUserId(Long id, Long userId);
 
        /**
-        * Find budgets that cover a specific date and category.
+        * Period and category of every budget of a user, for BudgetIntervalIndex.
         */
-       @Query("SELECT b FROM Budget b WHERE b.user.id = :userId " +
-                     "AND b.status IN ('ACTIVE', 'EXCEEDED') " +
-                     "AND b.startDate <= :date AND b.endDate >= :date " +
-                     "AND (b.category.id = :categoryId OR b.category IS NULL)")
-       List<Budget> findBudgetsForTransaction(@Param("userId") Long userId,
-                     @Param("date") LocalDate date,
-                     @Param("categoryId") Long categoryId);
+       @Query("SELECT b.id AS id, c.id AS categoryId, b.startDate AS startDate, b.endDate AS endDate " +
+                     "FROM Budget b LEFT JOIN b.category c WHERE b.user.id = :userId")
+       List<BudgetPeriod> findPeriodsByUserId(@Param("userId") Long userId);
 
        /**
         * Calculate total expense amount for user/category/date range.
+        * Whole months come from monthly_rollups; only partial edge months read transactions.
         */
+       default BigDecimal calculateSpentAmount(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+              return MonthlyRollupRepository.sumByMonth(startDate, endDate,
+                            (fromMonth, toMonth) -> sumRolledUpSpent(userId, categoryId, fromMonth, toMonth),
+                            (from, to) -> sumSpentFromTransactions(userId, categoryId, from, to));
+       }
+
+       @Query(value = "SELECT COALESCE(SUM(r.total_amount), 0) FROM monthly_rollups r " +
+                     "WHERE r.user_id = :userId " +
+                     "AND r.type = 'EXPENSE' " +
+                     "AND r.month_start BETWEEN :fromMonth AND :toMonth " +
+                     "AND (:categoryId IS NULL OR r.category_id = :categoryId)",
+                     nativeQuery = true)
+       BigDecimal sumRolledUpSpent(@Param("userId") Long userId,
+                     @Param("categoryId") Long categoryId,
+                     @Param("fromMonth") LocalDate fromMonth,
+                     @Param("toMonth") LocalDate toMonth);
+
        @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
                      "WHERE t.user.id = :userId " +
                      "AND t.type = 'EXPENSE' " +
                      "AND t.transactionDate BETWEEN :startDate AND :endDate " +
                      "AND (:categoryId IS NULL OR t.category.id = :categoryId)")
-       BigDecimal calculateSpentAmount(@Param("userId") Long userId,
+       BigDecimal sumSpentFromTransactions(@Param("userId") Long userId,
                      @Param("categoryId") Long categoryId,
                      @Param("startDate") LocalDate startDate,
                      @Param("endDate") LocalDate endDate);
 
        /**
-        * Find exceeded budgets for user.
+        * Apply a signed change to spentAmount in one statement, without reading the row first.
+        */
+       @Modifying
+       @Query("UPDATE Budget b SET b.spentAmount = b.spentAmount + :delta, b.updatedAt = :now WHERE b.id = :id")
+       int addToSpentAmount(@Param("id") Long id,
+                     @Param("delta") BigDecimal delta,
+                     @Param("now") LocalDateTime now);
+
+       @Query("SELECT b.spentAmount FROM Budget b WHERE b.id = :id")
+       BigDecimal findSpentAmountById(@Param("id") Long id);
+
+       /**
+        * Lowest and highest user id owning an active budget, for sharding the nightly reconciliation.
+        */
+       @Query("SELECT MIN(b.user.id) AS minUserId, MAX(b.user.id) AS maxUserId FROM Budget b " +
+                     "WHERE b.status IN ('ACTIVE', 'EXCEEDED')")
+       UserIdRange findActiveBudgetUserIdRange();
+
+       /**
+        * Next chunk of active budget ids within a user-id range, for the nightly reconciliation.
+        */
+       @Query("SELECT b.id FROM Budget b WHERE b.status IN ('ACTIVE', 'EXCEEDED') " +
+                     "AND b.user.id BETWEEN :fromUserId AND :toUserId " +
+                     "AND b.id > :lastId ORDER BY b.id")
+       List<Long> findActiveBudgetIdsAfter(@Param("fromUserId") Long fromUserId,
+                     @Param("toUserId") Long toUserId,
+                     @Param("lastId") Long lastId,
+                     Pageable pageable);
+
+       /**
+        * Budgets by id with the user fetched, since threshold alerts need it.
+        */
+       @Query("SELECT b FROM Budget b JOIN FETCH b.user WHERE b.id IN :ids")
+       List<Budget> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+       /**
+        * Spent amount of each of the given budgets, summed over their own periods
+        * in one grouped statement. Budgets with no matching expenses get 0.
+        */
+       @Query(value = "SELECT b.id AS budgetId, COALESCE(SUM(t.amount), 0) AS spentAmount " +
+                     "FROM budgets b " +
+                     "LEFT JOIN transactions t ON t.user_id = b.user_id " +
+                     "AND t.type = 'EXPENSE' " +
+                     "AND t.transaction_date BETWEEN b.start_date AND b.end_date " +
+                     "AND (b.category_id IS NULL OR t.category_id = b.category_id) " +
+                     "WHERE b.id IN (:ids) " +
+                     "GROUP BY b.id",
+                     nativeQuery = true)
+       List<BudgetSpent> sumSpentByBudgetIds(@Param("ids") Collection<Long> ids);
+
+       /**
+        * Record that the given budgets' spent amounts were confirmed by a full sum.
+        * updatedAt is left alone since nothing visible to clients changed.
         */
-       List<Budget> findByUserIdAndStatus(Long userId, Budget.BudgetStatus status);
+       @Modifying
+       @Query("UPDATE Budget b SET b.spentRecalculatedAt = :at WHERE b.id IN :ids")
+       int markSpentRecalculated(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+       /**
+        * Expense total per budget and day over each budget's own period, for forecasts.
+        */
+       @Query("SELECT b.id AS budgetId, t.transactionDate AS spendDate, SUM(t.amount) AS amount " +
+                     "FROM Budget b JOIN Transaction t ON t.user = b.user " +
+                     "AND t.type = 'EXPENSE' " +
+                     "AND t.transactionDate BETWEEN b.startDate AND b.endDate " +
+                     "AND (b.category IS NULL OR t.category = b.category) " +
+                     "WHERE b.id IN :ids " +
+                     "GROUP BY b.id, t.transactionDate")
+       List<DailySpend> findDailySpendByBudgetIds(@Param("ids") Collection<Long> ids);
+
+       /**
+        * Next chunk of recurring budgets whose period has ended without a successor.
+        */
+       @Query("SELECT b.id FROM Budget b WHERE b.recurrence <> 'NONE' AND b.rolledOverAt IS NULL " +
+                     "AND b.endDate < :today AND b.id > :lastId ORDER BY b.id")
+       List<Long> findRolloverDueIdsAfter(@Param("today") LocalDate today,
+                     @Param("lastId") Long lastId,
+                     Pageable pageable);
+
+       @Query("SELECT b FROM Budget b JOIN FETCH b.user LEFT JOIN FETCH b.category WHERE b.id IN :ids")
+       List<Budget> findAllForRolloverByIdIn(@Param("ids") Collection<Long> ids);
+
+       @Modifying
+       @Query("UPDATE Budget b SET b.rolledOverAt = :now WHERE b.id IN :ids")
+       int markRolledOver(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+       /**
+        * Next chunk of ACTIVE budgets whose period has ended. Exceeded budgets keep their status.
+        */
+       @Query("SELECT b.id FROM Budget b WHERE b.status = 'ACTIVE' AND b.endDate < :today " +
+                     "AND b.id > :lastId ORDER BY b.id")
+       List<Long> findExpiredActiveIdsAfter(@Param("today") LocalDate today,
+                     @Param("lastId") Long lastId,
+                     Pageable pageable);
+
+       @Modifying
+       @Query("UPDATE Budget b SET b.status = 'COMPLETED', b.updatedAt = :now " +
+                     "WHERE b.id IN :ids AND b.status = 'ACTIVE'")
+       int markCompleted(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+       @Modifying
+       @Query("UPDATE Budget b SET b.lastAlertSentAt = :now, b.updatedAt = :now WHERE b.id IN :ids")
+       int markAlertSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+       /**
+        * Budget count, limit and spent totals of a user per status, for the dashboard.
+        */
+       @Query("SELECT b.status AS status, COUNT(b) AS budgetCount, " +
+                     "COALESCE(SUM(b.limitAmount), 0) AS limitAmount, COALESCE(SUM(b.spentAmount), 0) AS spentAmount " +
+                     "FROM Budget b WHERE b.user.id = :userId GROUP BY b.status")
+       List<StatusTotal> findStatusTotalsByUserId(@Param("userId") Long userId);
+
+       @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.endDate > :today ORDER BY b.endDate, b.id")
+       List<Budget> findEndingAfter(@Param("userId") Long userId, @Param("today") LocalDate today, Pageable pageable);
+
+       interface StatusTotal {
+              Budget.BudgetStatus getStatus();
+
+              long getBudgetCount();
+
+              BigDecimal getLimitAmount();
+
+              BigDecimal getSpentAmount();
+       }
+
+       interface DailySpend {
+              Long getBudgetId();
+
+              LocalDate getSpendDate();
+
+              BigDecimal getAmount();
+       }
+
+       interface BudgetPeriod {
+              Long getId();
+
+              Long getCategoryId();
+
+              LocalDate getStartDate();
+
+              LocalDate getEndDate();
+       }
+
+       interface UserIdRange {
+              Long getMinUserId();
+
+              Long getMaxUserId();
+       }
+
+       interface BudgetSpent {
+              Long getBudgetId();
+
+              BigDecimal getSpentAmount();
+       }
 
        /**
-        * Find all active budgets for recalculation.
+        * Delta sync: budgets changed after (lastTs, lastId), up to the sync snapshot time.
         */
-       @Query("SELECT b FROM Budget b WHERE b.status IN ('ACTIVE', 'EXCEEDED')")
-       List<Budget> findAllActiveBudgets();
+       @Query("SELECT b FROM Budget b LEFT JOIN FETCH b.category WHERE b.user.id = :userId " +
+                     "AND b.updatedAt <= :until " +
+                     "AND (b.updatedAt > :lastTs OR (b.updatedAt = :lastTs AND b.id > :lastId)) " +
+                     "ORDER BY b.updatedAt, b.id")
+       List<Budget> findChangedSince(@Param("userId") Long userId,
+                     @Param("until") LocalDateTime until,
+                     @Param("lastTs") LocalDateTime lastTs,
+                     @Param("lastId") Long lastId,
+                     Pageable pageable);
 }
\ No newline at end of file
@@ -2,8 +2,13 @@ package com.money.money_manager.repository;
 
 import com.money.money_manager.entity.Category;
 import com.money.money_manager.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +16,18 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
     Optional<Category> findByIdAndUserId(Long id, Long userId);
+    List<Category> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     Optional<Category> findByNameAndUserId(String name, Long userId);
     boolean existsByNameAndUserId(String name, Long userId);
     List<Category> findByUserIdAndType(Long userId, Category.CategoryType type);
+
+    // Delta sync: rows changed after (lastTs, lastId), up to the sync snapshot time
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND c.updatedAt <= :until " +
+            "AND (c.updatedAt > :lastTs OR (c.updatedAt = :lastTs AND c.id > :lastId)) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Category> findChangedSince(@Param("userId") Long userId,
+                                    @Param("until") LocalDateTime until,
+                                    @Param("lastTs") LocalDateTime lastTs,
+                                    @Param("lastId") Long lastId,
+                                    Pageable pageable);
 }
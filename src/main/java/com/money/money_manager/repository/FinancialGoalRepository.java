@@ -1,11 +1,13 @@
 package com.money.money_manager.repository;
 
 import com.money.money_manager.entity.FinancialGoal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +30,14 @@ public interface FinancialGoalRepository extends JpaRepository<FinancialGoal, Lo
 
     @Query("SELECT fg FROM FinancialGoal fg WHERE fg.user.id = :userId AND fg.status = 'ACTIVE' AND fg.currentAmount < fg.targetAmount")
     List<FinancialGoal> findIncompleteByUserId(@Param("userId") Long userId);
+
+    // Delta sync: goals only carry a date, so the keyset is (updatedAt day, id)
+    @Query("SELECT fg FROM FinancialGoal fg WHERE fg.user.id = :userId AND fg.updatedAt <= :until " +
+            "AND (fg.updatedAt > :lastDate OR (fg.updatedAt = :lastDate AND fg.id > :lastId)) " +
+            "ORDER BY fg.updatedAt, fg.id")
+    List<FinancialGoal> findChangedSince(@Param("userId") Long userId,
+                                         @Param("until") LocalDate until,
+                                         @Param("lastDate") LocalDate lastDate,
+                                         @Param("lastId") Long lastId,
+                                         Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.responseBody = :responseBody, " +
+            "k.completedAt = :completedAt WHERE k.id = :id")
+    int markCompleted(@Param("id") Long id,
+                      @Param("responseBody") String responseBody,
+                      @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.status = 'IN_PROGRESS'")
+    int deleteReservation(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE (k.status = 'COMPLETED' AND k.createdAt < :completedCutoff) " +
+            "OR (k.status = 'IN_PROGRESS' AND k.createdAt < :inProgressCutoff)")
+    int deleteExpired(@Param("completedCutoff") LocalDateTime completedCutoff,
+                      @Param("inProgressCutoff") LocalDateTime inProgressCutoff);
+}
@@ -0,0 +1,141 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    /**
+     * Add a signed delta to one rollup row, creating it if needed.
+     * The upsert is atomic in MySQL, so concurrent writers for the same month do not lose updates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, month_start, category_id, type, total_amount, txn_count) " +
+            "VALUES (:userId, :monthStart, :categoryId, :type, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+            "txn_count = txn_count + VALUES(txn_count)",
+            nativeQuery = true)
+    void addDelta(@Param("userId") Long userId,
+                  @Param("monthStart") LocalDate monthStart,
+                  @Param("categoryId") Long categoryId,
+                  @Param("type") String type,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    /**
+     * Drop a category's rows, once its transactions are deleted along with it.
+     */
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId AND r.categoryId = :categoryId")
+    int deleteByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    /**
+     * Recompute every row from transactions, creating missing rows and overwriting drifted ones.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_rollups (user_id, month_start, category_id, type, total_amount, txn_count) " +
+            "SELECT * FROM (SELECT t.user_id AS user_id, " +
+            "DATE_SUB(t.transaction_date, INTERVAL DAYOFMONTH(t.transaction_date) - 1 DAY) AS month_start, " +
+            "t.category_id AS category_id, t.type AS type, SUM(t.amount) AS total_amount, COUNT(*) AS txn_count " +
+            "FROM transactions t GROUP BY 1, 2, 3, 4) AS src " +
+            "ON DUPLICATE KEY UPDATE total_amount = src.total_amount, txn_count = src.txn_count",
+            nativeQuery = true)
+    int rebuildFromTransactions();
+
+    /**
+     * Delete rows no transaction contributes to any more.
+     */
+    @Modifying
+    @Query(value = "DELETE r FROM monthly_rollups r WHERE NOT EXISTS (SELECT 1 FROM transactions t " +
+            "WHERE t.user_id = r.user_id AND t.category_id = r.category_id AND t.type = r.type " +
+            "AND t.transaction_date >= r.month_start AND t.transaction_date < r.month_start + INTERVAL 1 MONTH)",
+            nativeQuery = true)
+    int deleteOrphaned();
+
+    /**
+     * All-time totals per transaction type for a user.
+     */
+    @Query(value = "SELECT r.type AS type, COALESCE(SUM(r.total_amount), 0) AS totalAmount, " +
+            "COALESCE(SUM(r.txn_count), 0) AS txnCount " +
+            "FROM monthly_rollups r WHERE r.user_id = :userId GROUP BY r.type",
+            nativeQuery = true)
+    List<TypeTotal> findTotalsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Per-month, per-type totals for whole months, optionally narrowed to one type or category.
+     */
+    @Query(value = "SELECT r.month_start AS bucket, r.type AS type, SUM(r.total_amount) AS totalAmount, " +
+            "SUM(r.txn_count) AS txnCount FROM monthly_rollups r " +
+            "WHERE r.user_id = :userId AND r.month_start BETWEEN :fromMonth AND :toMonth " +
+            "AND (:type IS NULL OR r.type = :type) AND (:categoryId IS NULL OR r.category_id = :categoryId) " +
+            "GROUP BY r.month_start, r.type",
+            nativeQuery = true)
+    List<BucketTotal> findMonthBuckets(@Param("userId") Long userId,
+                                       @Param("fromMonth") LocalDate fromMonth,
+                                       @Param("toMonth") LocalDate toMonth,
+                                       @Param("type") String type,
+                                       @Param("categoryId") Long categoryId);
+
+    interface BucketTotal {
+        LocalDate getBucket();
+
+        String getType();
+
+        BigDecimal getTotalAmount();
+
+        Long getTxnCount();
+    }
+
+    interface TypeTotal {
+        String getType();
+
+        BigDecimal getTotalAmount();
+
+        Long getTxnCount();
+    }
+
+    /**
+     * Sum a date range by reading whole months through rollupSum and only the
+     * partial months at either edge through rawSum. Both functions take an
+     * inclusive range; rollupSum receives month starts.
+     */
+    static BigDecimal sumByMonth(LocalDate startDate, LocalDate endDate,
+                                 BiFunction<LocalDate, LocalDate, BigDecimal> rollupSum,
+                                 BiFunction<LocalDate, LocalDate, BigDecimal> rawSum) {
+        LocalDate firstMonth = startDate.getDayOfMonth() == 1
+                ? startDate
+                : startDate.with(TemporalAdjusters.firstDayOfNextMonth());
+        LocalDate lastMonth = endDate.equals(endDate.with(TemporalAdjusters.lastDayOfMonth()))
+                ? endDate.withDayOfMonth(1)
+                : endDate.withDayOfMonth(1).minusMonths(1);
+
+        if (firstMonth.isAfter(lastMonth)) {
+            return orZero(rawSum.apply(startDate, endDate));
+        }
+
+        BigDecimal total = orZero(rollupSum.apply(firstMonth, lastMonth));
+        if (startDate.isBefore(firstMonth)) {
+            total = total.add(orZero(rawSum.apply(startDate, firstMonth.minusDays(1))));
+        }
+        LocalDate afterLastMonth = lastMonth.plusMonths(1);
+        if (!endDate.isBefore(afterLastMonth)) {
+            total = total.add(orZero(rawSum.apply(afterLastMonth, endDate)));
+        }
+        return total;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,81 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Ids of events ready to run, oldest first. An event is skipped while an earlier
+     * event of the same user is being processed or waiting out a retry backoff,
+     * which keeps side effects for one user in write order.
+     */
+    @Query(value = "SELECT e.id FROM outbox_events e " +
+            "WHERE e.status = 'PENDING' AND e.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events p WHERE p.user_id = e.user_id AND p.id < e.id " +
+            "AND (p.status = 'PROCESSING' OR (p.status = 'PENDING' AND p.next_attempt_at > :now))) " +
+            "ORDER BY e.id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findReadyIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<OutboxEvent> findByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSING', e.claimedAt = :now " +
+            "WHERE e.id IN :ids AND e.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markAllDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :lastError, e.claimedAt = NULL WHERE e.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") OutboxEvent.Status status,
+                          @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("lastError") String lastError);
+
+    // Hand claimed but unprocessed events back, without counting an attempt
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.claimedAt = NULL " +
+            "WHERE e.id IN :ids AND e.status = 'PROCESSING'")
+    int release(@Param("ids") Collection<Long> ids);
+
+    // Claims left behind by a worker that died mid-batch
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.claimedAt = NULL " +
+            "WHERE e.status = 'PROCESSING' AND e.claimedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now, e.lastError = NULL " +
+            "WHERE e.status = 'FAILED'")
+    int retryFailed(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status IN ('PENDING', 'PROCESSING')")
+    LocalDateTime findOldestUnprocessedCreatedAt();
+}
@@ -0,0 +1,42 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("SELECT s FROM SyncTombstone s WHERE s.userId = :userId AND s.deletedAt <= :until " +
+            "AND (s.deletedAt > :lastTs OR (s.deletedAt = :lastTs AND s.id > :lastId)) " +
+            "ORDER BY s.deletedAt, s.id")
+    List<SyncTombstone> findChangedSince(@Param("userId") Long userId,
+                                         @Param("until") LocalDateTime until,
+                                         @Param("lastTs") LocalDateTime lastTs,
+                                         @Param("lastId") Long lastId,
+                                         Pageable pageable);
+
+    /**
+     * Tombstone every transaction of a category in one statement, ahead of the
+     * category delete that cascades to them.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, deleted_at) " +
+            "SELECT t.user_id, 'TRANSACTION', t.id, :deletedAt FROM transactions t " +
+            "WHERE t.user_id = :userId AND t.category_id = :categoryId",
+            nativeQuery = true)
+    int insertForCategoryTransactions(@Param("userId") Long userId,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone s WHERE s.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
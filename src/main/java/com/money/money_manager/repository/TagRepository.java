@@ -0,0 +1,34 @@
+package com.money.money_manager.repository;
+
+import com.money.money_manager.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    List<Tag> findByUserIdAndNameIn(Long userId, Collection<String> names);
+
+    /**
+     * Tags in use with their transaction counts.
+     * Answered from uk_tags_user_name and the (tag_id, transaction_id) index on transaction_tags.
+     */
+    @Query(value = "SELECT tg.name AS name, COUNT(*) AS usageCount FROM tags tg " +
+            "JOIN transaction_tags tt ON tt.tag_id = tg.id " +
+            "WHERE tg.user_id = :userId " +
+            "GROUP BY tg.id, tg.name " +
+            "ORDER BY usageCount DESC, tg.name",
+            nativeQuery = true)
+    List<TagUsage> findTagUsageByUserId(@Param("userId") Long userId);
+
+    interface TagUsage {
+        String getName();
+
+        Long getUsageCount();
+    }
+}
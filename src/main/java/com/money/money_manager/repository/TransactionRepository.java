@@ -1,15 +1,24 @@
 package com.money.money_manager.repository;
 
+import com.money.money_manager.dto.TransactionDTO;
+import com.money.money_manager.dto.TransactionExportRow;
 import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import java.math.BigDecimal;
 
 @Repository
@@ -18,32 +27,171 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     long countByUserId(Long userId);
 
+    /**
+     * Row projection with the category joined, shared by the read endpoints.
+     * Avoids loading entities and the per-row lazy category fetch.
+     */
+    String DTO_SELECT = "SELECT new com.money.money_manager.dto.TransactionDTO(" +
+            "t.id, t.title, t.description, t.amount, t.type, c.id, c.name, t.transactionDate, " +
+            "t.paymentMethod, t.receiptUrl, t.tags, t.createdAt, t.updatedAt) " +
+            "FROM Transaction t JOIN t.category c ";
+
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId")
+    List<TransactionDTO> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TransactionDTO> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Keyset pages ordered by (transactionDate, id) so MySQL can walk idx_user_date
+    // (InnoDB appends the primary key to secondary indexes). No count query is issued.
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId " +
+            "AND (t.transactionDate < :lastDate OR (t.transactionDate = :lastDate AND t.id < :lastId)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDTO> findPageByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("lastDate") LocalDate lastDate,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
+    // Delta sync: rows changed after (lastTs, lastId), up to the sync snapshot time
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.updatedAt <= :until " +
+            "AND (t.updatedAt > :lastTs OR (t.updatedAt = :lastTs AND t.id > :lastId)) " +
+            "ORDER BY t.updatedAt, t.id")
+    List<TransactionDTO> findChangedSince(
+            @Param("userId") Long userId,
+            @Param("until") LocalDateTime until,
+            @Param("lastTs") LocalDateTime lastTs,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
     List<Transaction> findByUserIdAndTransactionDate(Long userId, LocalDate date);
 
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
-    List<Transaction> findTransactionsBetweenDates(
+    @Query(DTO_SELECT + "WHERE t.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    List<TransactionDTO> findTransactionsBetweenDates(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.type = 'INCOME' AND t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal getTotalIncome(
+    default BigDecimal getTotalIncome(Long userId, LocalDate startDate, LocalDate endDate) {
+        return sumAmountByMonth(userId, Transaction.TransactionType.INCOME, startDate, endDate);
+    }
+
+    default BigDecimal getTotalExpense(Long userId, LocalDate startDate, LocalDate endDate) {
+        return sumAmountByMonth(userId, Transaction.TransactionType.EXPENSE, startDate, endDate);
+    }
+
+    /**
+     * Total of one transaction type over a date range, read from monthly_rollups
+     * for whole months and from transactions only for partial edge months.
+     */
+    default BigDecimal sumAmountByMonth(Long userId, Transaction.TransactionType type,
+                                        LocalDate startDate, LocalDate endDate) {
+        return MonthlyRollupRepository.sumByMonth(startDate, endDate,
+                (fromMonth, toMonth) -> sumRolledUpAmount(userId, type.name(), fromMonth, toMonth),
+                (from, to) -> sumAmountBetween(userId, type, from, to));
+    }
+
+    @Query(value = "SELECT COALESCE(SUM(r.total_amount), 0) FROM monthly_rollups r " +
+            "WHERE r.user_id = :userId AND r.type = :type AND r.month_start BETWEEN :fromMonth AND :toMonth",
+            nativeQuery = true)
+    BigDecimal sumRolledUpAmount(
             @Param("userId") Long userId,
+            @Param("type") String type,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.id = :userId AND t.type = :type " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumAmountBetween(
+            @Param("userId") Long userId,
+            @Param("type") Transaction.TransactionType type,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.type = 'EXPENSE' AND t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal getTotalExpense(
+    String BUCKET_FILTER = "FROM transactions t WHERE t.user_id = :userId " +
+            "AND t.transaction_date BETWEEN :startDate AND :endDate " +
+            "AND (:type IS NULL OR t.type = :type) AND (:categoryId IS NULL OR t.category_id = :categoryId) ";
+
+    /**
+     * Per-day, per-type totals over a date range (served by idx_user_date).
+     */
+    @Query(value = "SELECT t.transaction_date AS bucket, t.type AS type, SUM(t.amount) AS totalAmount, " +
+            "COUNT(*) AS txnCount " + BUCKET_FILTER + "GROUP BY t.transaction_date, t.type",
+            nativeQuery = true)
+    List<MonthlyRollupRepository.BucketTotal> findDayBuckets(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("type") String type,
+            @Param("categoryId") Long categoryId);
+
+    /**
+     * Per-week (Monday start), per-type totals over a date range.
+     */
+    @Query(value = "SELECT DATE_SUB(t.transaction_date, INTERVAL WEEKDAY(t.transaction_date) DAY) AS bucket, " +
+            "t.type AS type, SUM(t.amount) AS totalAmount, COUNT(*) AS txnCount " + BUCKET_FILTER +
+            "GROUP BY bucket, t.type",
+            nativeQuery = true)
+    List<MonthlyRollupRepository.BucketTotal> findWeekBuckets(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("type") String type,
+            @Param("categoryId") Long categoryId);
+
+    /**
+     * Spend per category for one transaction type over [startDate, endDate] and, in the
+     * same pass, over the preceding period [previousStartDate, startDate), largest first.
+     */
+    @Query("SELECT c.id AS categoryId, c.name AS categoryName, c.color AS color, c.icon AS icon, " +
+            "SUM(CASE WHEN t.transactionDate >= :startDate THEN t.amount ELSE 0 END) AS currentAmount, " +
+            "SUM(CASE WHEN t.transactionDate < :startDate THEN t.amount ELSE 0 END) AS previousAmount, " +
+            "SUM(CASE WHEN t.transactionDate >= :startDate THEN 1 ELSE 0 END) AS txnCount " +
+            "FROM Transaction t JOIN t.category c WHERE t.user.id = :userId AND t.type = :type " +
+            "AND t.transactionDate BETWEEN :previousStartDate AND :endDate " +
+            "GROUP BY c.id, c.name, c.color, c.icon " +
+            "ORDER BY currentAmount DESC, c.id")
+    List<CategorySpend> findCategorySpend(
+            @Param("userId") Long userId,
+            @Param("type") Transaction.TransactionType type,
+            @Param("previousStartDate") LocalDate previousStartDate,
+            @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    List<Transaction> findByCategoryIdAndUserId(Long categoryId, Long userId);
+    interface CategorySpend {
+        Long getCategoryId();
+
+        String getCategoryName();
+
+        String getColor();
+
+        String getIcon();
+
+        BigDecimal getCurrentAmount();
 
-    @Query("SELECT DISTINCT t.tags FROM Transaction t WHERE t.user.id = :userId AND t.tags IS NOT NULL")
-    List<String> findDistinctTagsByUserId(@Param("userId") Long userId);
+        BigDecimal getPreviousAmount();
 
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+        Long getTxnCount();
+    }
+
+    // Integer.MIN_VALUE fetch size makes MySQL Connector/J stream rows one at a time
+    // instead of buffering the whole result set. Must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.money.money_manager.dto.TransactionExportRow(" +
+            "t.title, t.description, t.amount, t.type, c.name, t.transactionDate, t.paymentMethod, t.tags) " +
+            "FROM Transaction t JOIN t.category c WHERE t.user.id = :userId " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<TransactionExportRow> streamExportRowsByUserId(@Param("userId") Long userId);
+
+    List<Transaction> findByCategoryIdAndUserId(Long categoryId, Long userId);
+
+    String SEARCH_FILTER = "WHERE t.user.id = :userId " +
             "AND (:searchTerm IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
             "OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
             "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
@@ -51,8 +199,13 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
             "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
             "AND (:type IS NULL OR t.type = :type) " +
-            "AND (:paymentMethod IS NULL OR t.paymentMethod = :paymentMethod)")
-    Page<Transaction> searchTransactions(
+            "AND (:paymentMethod IS NULL OR t.paymentMethod = :paymentMethod) " +
+            "AND (:tagCount = 0 OR EXISTS (SELECT tx.id FROM Transaction tx JOIN tx.tagSet tg " +
+            "WHERE tx.id = t.id AND tg.name IN :tags))";
+
+    @Query(value = DTO_SELECT + SEARCH_FILTER,
+            countQuery = "SELECT COUNT(t) FROM Transaction t " + SEARCH_FILTER)
+    Page<TransactionDTO> searchTransactions(
             @Param("userId") Long userId,
             @Param("searchTerm") String searchTerm,
             @Param("startDate") LocalDate startDate,
@@ -61,5 +214,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("maxAmount") BigDecimal maxAmount,
             @Param("type") Transaction.TransactionType type,
             @Param("paymentMethod") String paymentMethod,
+            @Param("tags") List<String> tags,
+            @Param("tagCount") int tagCount,
+            Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE t.id IN :ids")
+    List<TransactionDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    String FULLTEXT_FILTER = "WHERE t.user_id = :userId " +
+            "AND MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE) " +
+            "AND (:startDate IS NULL OR t.transaction_date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.transaction_date <= :endDate) " +
+            "AND (:minAmount IS NULL OR t.amount >= :minAmount) " +
+            "AND (:maxAmount IS NULL OR t.amount <= :maxAmount) " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (:paymentMethod IS NULL OR t.payment_method = :paymentMethod) " +
+            "AND (:tagCount = 0 OR EXISTS (SELECT 1 FROM transaction_tags tt JOIN tags tg ON tg.id = tt.tag_id " +
+            "WHERE tt.transaction_id = t.id AND tg.name IN (:tags))) ";
+
+    /**
+     * Full-text search over title and description using ft_transactions_title_description.
+     * Results are ordered by relevance; query is a MySQL boolean-mode expression.
+     */
+    @Query(value = "SELECT t.id AS id, MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE) AS score " +
+            "FROM transactions t " + FULLTEXT_FILTER +
+            "ORDER BY score DESC, t.transaction_date DESC, t.id DESC",
+            countQuery = "SELECT COUNT(*) FROM transactions t " + FULLTEXT_FILTER,
+            nativeQuery = true)
+    Page<TransactionSearchHit> fullTextSearch(
+            @Param("userId") Long userId,
+            @Param("query") String query,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("type") String type,
+            @Param("paymentMethod") String paymentMethod,
+            @Param("tags") List<String> tags,
+            @Param("tagCount") int tagCount,
             Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.money.money_manager.repository;
+
+/**
+ * Id and relevance score of a full-text search match.
+ */
+public interface TransactionSearchHit {
+    Long getId();
+
+    Double getScore();
+}
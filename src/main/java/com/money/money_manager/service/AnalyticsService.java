@@ -0,0 +1,270 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.CategoryBreakdownDTO;
+import com.money.money_manager.dto.CategorySpendDTO;
+import com.money.money_manager.dto.TimeSeriesDTO;
+import com.money.money_manager.dto.TimeSeriesPointDTO;
+import com.money.money_manager.entity.Transaction;
+import com.money.money_manager.repository.MonthlyRollupRepository;
+import com.money.money_manager.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Income/expense time series and category breakdowns, grouped in the database.
+ *
+ * Time series are bucketed by day, week or month: monthly series read
+ * monthly_rollups for whole months and group raw transactions only for partial
+ * months at the edges; daily and weekly series group transactions over
+ * idx_user_date. Buckets are calendar aligned, so the first and last may extend
+ * past from/to (only transactions inside the range count), and buckets without
+ * transactions are zero-filled here. Category breakdowns sum the period and the
+ * one before it in a single grouped pass over transactions joined to categories.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class AnalyticsService {
+
+    private static final int MAX_BUCKETS = 1000;
+    private static final int DEFAULT_TOP_CATEGORIES = 5;
+    private static final int MAX_TOP_CATEGORIES = 50;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final TransactionRepository transactionRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+
+        // Range used when the caller gives no start date: the last 30 days, 12 weeks or 12 months
+        LocalDate defaultFrom(LocalDate to) {
+            return switch (this) {
+                case DAY -> to.minusDays(29);
+                case WEEK -> bucketStart(to).minusWeeks(11);
+                case MONTH -> bucketStart(to).minusMonths(11);
+            };
+        }
+    }
+
+    public TimeSeriesDTO getTimeSeries(Long userId, String granularity, LocalDate from, LocalDate to,
+                                       String type, Long categoryId) {
+        Granularity unit = parse(Granularity.class, granularity == null ? "month" : granularity, "granularity");
+        Transaction.TransactionType transactionType = type == null ? null
+                : parse(Transaction.TransactionType.class, type, "type");
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : unit.defaultFrom(end);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        // Zero-filled buckets, keyed by bucket start in order
+        Map<LocalDate, Bucket> buckets = new LinkedHashMap<>();
+        for (LocalDate bucket = unit.bucketStart(start); !bucket.isAfter(end); bucket = unit.next(bucket)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("Range has more than " + MAX_BUCKETS + " " +
+                        unit.name().toLowerCase(Locale.ROOT) + " buckets; use a coarser granularity");
+            }
+            buckets.put(bucket, new Bucket());
+        }
+
+        String typeName = transactionType != null ? transactionType.name() : null;
+        for (MonthlyRollupRepository.BucketTotal row : fetch(userId, unit, start, end, typeName, categoryId)) {
+            buckets.get(unit.bucketStart(row.getBucket())).add(row);
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>(buckets.size());
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            points.add(new TimeSeriesPointDTO(entry.getKey(), bucket.income, bucket.expense,
+                    bucket.income.subtract(bucket.expense), bucket.count));
+            totalIncome = totalIncome.add(bucket.income);
+            totalExpense = totalExpense.add(bucket.expense);
+        }
+
+        return TimeSeriesDTO.builder()
+                .granularity(unit.name())
+                .from(start)
+                .to(end)
+                .type(typeName)
+                .categoryId(categoryId)
+                .totalIncome(totalIncome)
+                .totalExpense(totalExpense)
+                .net(totalIncome.subtract(totalExpense))
+                .points(points)
+                .build();
+    }
+
+    private List<MonthlyRollupRepository.BucketTotal> fetch(Long userId, Granularity unit, LocalDate start,
+                                                            LocalDate end, String type, Long categoryId) {
+        if (unit == Granularity.DAY) {
+            return transactionRepository.findDayBuckets(userId, start, end, type, categoryId);
+        }
+        if (unit == Granularity.WEEK) {
+            return transactionRepository.findWeekBuckets(userId, start, end, type, categoryId);
+        }
+
+        // Whole months from the rollup, partial edge months from transactions (folded by bucketStart)
+        LocalDate firstMonth = start.getDayOfMonth() == 1
+                ? start
+                : start.with(TemporalAdjusters.firstDayOfNextMonth());
+        LocalDate lastMonth = end.equals(end.with(TemporalAdjusters.lastDayOfMonth()))
+                ? end.withDayOfMonth(1)
+                : end.withDayOfMonth(1).minusMonths(1);
+        if (firstMonth.isAfter(lastMonth)) {
+            return transactionRepository.findDayBuckets(userId, start, end, type, categoryId);
+        }
+
+        List<MonthlyRollupRepository.BucketTotal> rows = new ArrayList<>(
+                monthlyRollupRepository.findMonthBuckets(userId, firstMonth, lastMonth, type, categoryId));
+        if (start.isBefore(firstMonth)) {
+            rows.addAll(transactionRepository.findDayBuckets(userId, start, firstMonth.minusDays(1), type, categoryId));
+        }
+        LocalDate afterLastMonth = lastMonth.plusMonths(1);
+        if (!end.isBefore(afterLastMonth)) {
+            rows.addAll(transactionRepository.findDayBuckets(userId, afterLastMonth, end, type, categoryId));
+        }
+        return rows;
+    }
+
+    /**
+     * Spend per category over [from, to] (default: month to date) with the top
+     * limit categories listed and the rest folded into "other". Each category is
+     * compared with the period of the same length directly before from.
+     */
+    public CategoryBreakdownDTO getCategoryBreakdown(Long userId, LocalDate from, LocalDate to,
+                                                     String type, Integer limit) {
+        Transaction.TransactionType transactionType = type == null ? Transaction.TransactionType.EXPENSE
+                : parse(Transaction.TransactionType.class, type, "type");
+        int top = limit == null ? DEFAULT_TOP_CATEGORIES : Math.min(Math.max(limit, 1), MAX_TOP_CATEGORIES);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDate previousStart = start.minusDays(ChronoUnit.DAYS.between(start, end) + 1);
+
+        List<TransactionRepository.CategorySpend> rows = transactionRepository.findCategorySpend(
+                userId, transactionType, previousStart, start, end);
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal previousTotal = BigDecimal.ZERO;
+        for (TransactionRepository.CategorySpend row : rows) {
+            total = total.add(row.getCurrentAmount());
+            previousTotal = previousTotal.add(row.getPreviousAmount());
+        }
+
+        // Rows come largest first; categories only spent on in the previous period go to "other"
+        List<CategorySpendDTO> categories = new ArrayList<>();
+        BigDecimal otherAmount = BigDecimal.ZERO;
+        BigDecimal otherPrevious = BigDecimal.ZERO;
+        long otherCount = 0;
+        boolean hasOther = false;
+        for (TransactionRepository.CategorySpend row : rows) {
+            if (categories.size() < top && row.getCurrentAmount().signum() > 0) {
+                categories.add(CategorySpendDTO.builder()
+                        .categoryId(row.getCategoryId())
+                        .categoryName(row.getCategoryName())
+                        .color(row.getColor())
+                        .icon(row.getIcon())
+                        .amount(row.getCurrentAmount())
+                        .previousAmount(row.getPreviousAmount())
+                        .transactionCount(row.getTxnCount())
+                        .sharePercent(percentOf(row.getCurrentAmount(), total))
+                        .changePercent(change(row.getCurrentAmount(), row.getPreviousAmount()))
+                        .build());
+            } else {
+                otherAmount = otherAmount.add(row.getCurrentAmount());
+                otherPrevious = otherPrevious.add(row.getPreviousAmount());
+                otherCount += row.getTxnCount();
+                hasOther = true;
+            }
+        }
+        CategorySpendDTO other = !hasOther ? null : CategorySpendDTO.builder()
+                .categoryName("Other")
+                .amount(otherAmount)
+                .previousAmount(otherPrevious)
+                .transactionCount(otherCount)
+                .sharePercent(percentOf(otherAmount, total))
+                .changePercent(change(otherAmount, otherPrevious))
+                .build();
+
+        return CategoryBreakdownDTO.builder()
+                .type(transactionType.name())
+                .from(start)
+                .to(end)
+                .previousFrom(previousStart)
+                .previousTo(start.minusDays(1))
+                .total(total)
+                .previousTotal(previousTotal)
+                .changePercent(change(total, previousTotal))
+                .categories(categories)
+                .other(other)
+                .build();
+    }
+
+    private static BigDecimal percentOf(BigDecimal part, BigDecimal whole) {
+        return whole.signum() == 0 ? BigDecimal.ZERO
+                : part.multiply(HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal change(BigDecimal current, BigDecimal previous) {
+        return previous.signum() == 0 ? null
+                : current.subtract(previous).multiply(HUNDRED).divide(previous, 2, RoundingMode.HALF_UP);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> enumType, String value, String name) {
+        try {
+            return Enum.valueOf(enumType, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static final class Bucket {
+        private BigDecimal income = BigDecimal.ZERO;
+        private BigDecimal expense = BigDecimal.ZERO;
+        private long count;
+
+        private void add(MonthlyRollupRepository.BucketTotal row) {
+            if (Transaction.TransactionType.INCOME.name().equals(row.getType())) {
+                income = income.add(row.getTotalAmount());
+            } else if (Transaction.TransactionType.EXPENSE.name().equals(row.getType())) {
+                expense = expense.add(row.getTotalAmount());
+            }
+            count += row.getTxnCount() != null ? row.getTxnCount() : 0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.money.money_manager.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small thread-safe LRU cache with a size bound and a per-entry time to live.
+ * Meant for hot lookups that have a durable copy elsewhere; an entry may be
+ * evicted at any time. Keeps hit, miss, eviction and expiration counts.
+ *
+ * Entries live in this JVM only and invalidation is not shared, so the caches
+ * built on this assume a single application instance (see README, Instances).
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Token of the latest load started per key; invalidating the key withdraws it
+    private final Map<K, Object> loads = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        // Access order so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Cached value for key, or the loader's result on a miss. The loaded value is
+     * kept only if keep accepts it and key was not invalidated (or loaded again)
+     * while the loader ran, so a load that raced with a write to that key is served
+     * once but not cached. Other keys are unaffected.
+     */
+    public V getOrLoad(K key, Supplier<V> loader, Predicate<V> keep) {
+        Object token = new Object();
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loads.put(key, token);
+        }
+        V value = null;
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            synchronized (this) {
+                if (loads.remove(key, token) && value != null && keep.test(value)) {
+                    put(key, value);
+                }
+            }
+        }
+    }
+
+    public V getOrLoad(K key, Supplier<V> loader) {
+        return getOrLoad(key, loader, value -> true);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        loads.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        loads.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    public synchronized long expirationCount() {
+        return expirations;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
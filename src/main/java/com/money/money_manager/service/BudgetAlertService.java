@@ -0,0 +1,126 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.entity.Budget;
+import com.money.money_manager.entity.Notification;
+import com.money.money_manager.event.BudgetStatusChangedEvent;
+import com.money.money_manager.event.UserDataChangedEvent;
+import com.money.money_manager.repository.BudgetRepository;
+import com.money.money_manager.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends budget threshold alerts off the write path.
+ *
+ * Status changes into EXCEEDED are queued once the write that caused them commits,
+ * and a scheduled flush turns each batch into one batched notification insert and
+ * one lastAlertSentAt update. Budgets are re-read at flush time, so an alert is
+ * skipped if the budget is no longer over its limit or was alerted within the
+ * cooldown. The queue lives in memory: alerts still queued when the application
+ * stops are lost, which only costs a notification, never budget data.
+ */
+@Service
+@Slf4j
+public class BudgetAlertService {
+
+    private static final int MAX_QUEUED = 10_000;
+    private static final int BATCH_SIZE = 200;
+    private static final Duration ALERT_COOLDOWN = Duration.ofHours(24);
+
+    private final BudgetRepository budgetRepository;
+    private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue = new ArrayBlockingQueue<>(MAX_QUEUED);
+    private final AtomicLong dropped = new AtomicLong();
+
+    public BudgetAlertService(BudgetRepository budgetRepository,
+                              NotificationRepository notificationRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetStatusChanged(BudgetStatusChangedEvent event) {
+        if (event.getNewStatus() != Budget.BudgetStatus.EXCEEDED) {
+            return;
+        }
+        if (!queue.offer(event.getBudgetId())) {
+            log.warn("Budget alert queue full, dropped alert for budget {} ({} dropped so far)",
+                    event.getBudgetId(), dropped.incrementAndGet());
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void flush() {
+        while (!queue.isEmpty()) {
+            List<Long> drained = new ArrayList<>(BATCH_SIZE);
+            queue.drainTo(drained, BATCH_SIZE);
+            // A budget that flapped several times in one batch gets one alert
+            Set<Long> budgetIds = new LinkedHashSet<>(drained);
+            try {
+                Integer sent = transactionTemplate.execute(status -> sendAlerts(budgetIds));
+                log.debug("Sent {} budget alerts for {} queued status changes", sent, drained.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to send {} budget alerts: {}", budgetIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int sendAlerts(Set<Long> budgetIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cooldownStart = now.minus(ALERT_COOLDOWN);
+
+        List<Notification> notifications = new ArrayList<>();
+        List<Long> alerted = new ArrayList<>();
+        for (Budget budget : budgetRepository.findAllWithUserByIdIn(budgetIds)) {
+            if (budget.getStatus() != Budget.BudgetStatus.EXCEEDED
+                    || (budget.getLastAlertSentAt() != null && budget.getLastAlertSentAt().isAfter(cooldownStart))) {
+                continue;
+            }
+            String message = String.format(
+                    "Budget '%s' has exceeded %d%% threshold. Spent: ₹%s of ₹%s limit.",
+                    budget.getName(),
+                    budget.getThresholdPercent(),
+                    budget.getSpentAmount(),
+                    budget.getLimitAmount()
+            );
+            notifications.add(new Notification(budget.getUser(), message, Notification.NotificationType.BUDGET_EXCEEDED));
+            alerted.add(budget.getId());
+        }
+
+        if (!alerted.isEmpty()) {
+            notificationRepository.saveAll(notifications);
+            budgetRepository.markAlertSent(alerted, now);
+            notifications.stream().map(n -> n.getUser().getId()).distinct().forEach(userId ->
+                    eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.NOTIFICATIONS)));
+        }
+        return alerted.size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.BudgetSummaryDTO;
+import com.money.money_manager.repository.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Burn-rate forecasts for budgets: projected end-of-period spend, the daily
+ * allowance left and the date the limit is (or is predicted to be) crossed.
+ *
+ * The burn rate is the average daily spend over the last RATE_WINDOW_DAYS days
+ * of the period so far, taken from per-day expense sums. Forecasts are cached per
+ * budget and reused until the budget row changes (every spend delta bumps its
+ * updatedAt) or the day rolls over; misses for a whole page are computed with one
+ * grouped query. Transaction changes also evict the budgets they fall into.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetForecastService {
+
+    private static final int RATE_WINDOW_DAYS = 14;
+    private static final int MAX_CACHED_BUDGETS = 50_000;
+    private static final Duration CACHE_TTL = Duration.ofDays(1);
+
+    private final BudgetRepository budgetRepository;
+    private final BoundedCache<Long, Forecast> cache = new BoundedCache<>(MAX_CACHED_BUDGETS, CACHE_TTL);
+
+    /**
+     * Fill the forecast fields of the given budget summaries.
+     */
+    public void applyForecasts(List<BudgetSummaryDTO> summaries) {
+        Map<Long, Forecast> forecasts = forecast(summaries);
+        for (BudgetSummaryDTO summary : summaries) {
+            Forecast forecast = forecasts.get(summary.getId());
+            if (forecast != null) {
+                summary.setAverageDailySpend(forecast.averageDailySpend);
+                summary.setProjectedSpend(forecast.projectedSpend);
+                summary.setDailyAllowance(forecast.dailyAllowance);
+                summary.setProjectedExceedDate(forecast.projectedExceedDate);
+            }
+        }
+    }
+
+    /**
+     * Drop cached forecasts of budgets whose transactions changed. Needed on top of the
+     * updatedAt/spent check, since moving an expense between days of the same budget
+     * changes the daily distribution without changing the total.
+     */
+    public void invalidate(Collection<Long> budgetIds) {
+        budgetIds.forEach(cache::invalidate);
+    }
+
+    private Map<Long, Forecast> forecast(List<BudgetSummaryDTO> budgets) {
+        LocalDate today = LocalDate.now();
+        Map<Long, Forecast> result = new HashMap<>();
+        Set<Long> misses = new HashSet<>();
+        for (BudgetSummaryDTO budget : budgets) {
+            Forecast cached = cache.get(budget.getId());
+            if (cached != null && cached.isValidFor(budget, today)) {
+                result.put(budget.getId(), cached);
+            } else {
+                misses.add(budget.getId());
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, TreeMap<LocalDate, BigDecimal>> dailyByBudget = new HashMap<>();
+        for (BudgetRepository.DailySpend row : budgetRepository.findDailySpendByBudgetIds(misses)) {
+            dailyByBudget.computeIfAbsent(row.getBudgetId(), id -> new TreeMap<>())
+                    .put(row.getSpendDate(), row.getAmount());
+        }
+        for (BudgetSummaryDTO budget : budgets) {
+            if (misses.contains(budget.getId())) {
+                Forecast forecast = compute(budget, dailyByBudget.getOrDefault(budget.getId(), new TreeMap<>()), today);
+                cache.put(budget.getId(), forecast);
+                result.put(budget.getId(), forecast);
+            }
+        }
+        log.debug("Computed {} budget forecasts, {} served from cache", misses.size(), budgets.size() - misses.size());
+        return result;
+    }
+
+    private static Forecast compute(BudgetSummaryDTO budget, TreeMap<LocalDate, BigDecimal> daily, LocalDate today) {
+        LocalDate start = budget.getStartDate();
+        LocalDate end = budget.getEndDate();
+        BigDecimal spent = budget.getSpentAmount();
+        BigDecimal limit = budget.getLimitAmount();
+
+        // Average over the trailing window of the period so far; nothing to go on before it starts
+        BigDecimal rate = BigDecimal.ZERO;
+        if (!today.isBefore(start)) {
+            LocalDate asOf = today.isAfter(end) ? end : today;
+            long elapsedDays = ChronoUnit.DAYS.between(start, asOf) + 1;
+            long window = Math.min(RATE_WINDOW_DAYS, elapsedDays);
+            BigDecimal windowSpend = daily.subMap(asOf.minusDays(window), false, asOf, true).values().stream()
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            rate = windowSpend.divide(BigDecimal.valueOf(window), 2, RoundingMode.HALF_UP);
+        }
+
+        // Whole days still to come after today, and days left to spend including today
+        long futureDays = today.isBefore(start)
+                ? ChronoUnit.DAYS.between(start, end) + 1
+                : Math.max(0, ChronoUnit.DAYS.between(today, end));
+        long daysLeft = today.isAfter(end) ? 0 : ChronoUnit.DAYS.between(today.isBefore(start) ? start : today, end) + 1;
+
+        BigDecimal projectedSpend = spent.add(rate.multiply(BigDecimal.valueOf(futureDays)));
+        BigDecimal remaining = limit.subtract(spent).max(BigDecimal.ZERO);
+        BigDecimal dailyAllowance = daysLeft > 0
+                ? remaining.divide(BigDecimal.valueOf(daysLeft), 2, RoundingMode.DOWN)
+                : BigDecimal.ZERO;
+
+        LocalDate exceedDate = null;
+        if (spent.compareTo(limit) > 0) {
+            // Already over: the day the running total first passed the limit
+            BigDecimal cumulative = BigDecimal.ZERO;
+            for (Map.Entry<LocalDate, BigDecimal> day : daily.entrySet()) {
+                cumulative = cumulative.add(day.getValue());
+                if (cumulative.compareTo(limit) > 0) {
+                    exceedDate = day.getKey();
+                    break;
+                }
+            }
+        } else if (rate.signum() > 0 && futureDays > 0) {
+            long daysToExceed = remaining.divide(rate, 0, RoundingMode.FLOOR).longValue() + 1;
+            LocalDate predicted = today.plusDays(daysToExceed);
+            if (!predicted.isAfter(end)) {
+                exceedDate = predicted;
+            }
+        }
+
+        return new Forecast(budget, today, rate, projectedSpend, dailyAllowance, exceedDate);
+    }
+
+    private static final class Forecast {
+        // Inputs the forecast was computed from
+        private final LocalDateTime budgetUpdatedAt;
+        private final BigDecimal spentAmount;
+        private final LocalDate computedOn;
+
+        private final BigDecimal averageDailySpend;
+        private final BigDecimal projectedSpend;
+        private final BigDecimal dailyAllowance;
+        private final LocalDate projectedExceedDate;
+
+        private Forecast(BudgetSummaryDTO budget, LocalDate computedOn, BigDecimal averageDailySpend,
+                         BigDecimal projectedSpend, BigDecimal dailyAllowance, LocalDate projectedExceedDate) {
+            this.budgetUpdatedAt = budget.getUpdatedAt();
+            this.spentAmount = budget.getSpentAmount();
+            this.computedOn = computedOn;
+            this.averageDailySpend = averageDailySpend;
+            this.projectedSpend = projectedSpend;
+            this.dailyAllowance = dailyAllowance;
+            this.projectedExceedDate = projectedExceedDate;
+        }
+
+        private boolean isValidFor(BudgetSummaryDTO budget, LocalDate today) {
+            return computedOn.equals(today)
+                    && Objects.equals(budgetUpdatedAt, budget.getUpdatedAt())
+                    && spentAmount.compareTo(budget.getSpentAmount()) == 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.repository.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of each user's budget periods, answering which budgets a
+ * transaction falls into without querying the budgets table.
+ *
+ * A user's budgets are loaded on first use and dropped when a budget is created,
+ * updated or deleted, or a category is deleted (which clears budget categories).
+ * Budget status is not indexed, since it moves with spending; callers check it on
+ * the budgets they go on to load.
+ */
+@Component
+@RequiredArgsConstructor
+public class BudgetIntervalIndex {
+
+    private static final int MAX_USERS = 10_000;
+    // Safety net only; writes invalidate explicitly
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final BudgetRepository budgetRepository;
+    private final BoundedCache<Long, UserBudgets> cache = new BoundedCache<>(MAX_USERS, TTL);
+
+    /**
+     * Ids of the user's budgets whose period contains date and which cover
+     * categoryId (budgets without a category cover all categories).
+     */
+    public List<Long> findBudgetIds(Long userId, Long categoryId, LocalDate date) {
+        UserBudgets budgets = cache.getOrLoad(userId,
+                () -> UserBudgets.of(budgetRepository.findPeriodsByUserId(userId)));
+
+        List<Long> ids = new ArrayList<>();
+        budgets.allCategories.collect(date, ids);
+        Intervals byCategory = budgets.byCategory.get(categoryId);
+        if (byCategory != null) {
+            byCategory.collect(date, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Drop the user's index now and again once the current transaction completes,
+     * so a concurrent reader cannot cache the pre-commit budgets.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static final class UserBudgets {
+        private final Intervals allCategories;
+        private final Map<Long, Intervals> byCategory;
+
+        private UserBudgets(Intervals allCategories, Map<Long, Intervals> byCategory) {
+            this.allCategories = allCategories;
+            this.byCategory = byCategory;
+        }
+
+        private static UserBudgets of(List<BudgetRepository.BudgetPeriod> periods) {
+            List<BudgetRepository.BudgetPeriod> uncategorized = new ArrayList<>();
+            Map<Long, List<BudgetRepository.BudgetPeriod>> categorized = new HashMap<>();
+            for (BudgetRepository.BudgetPeriod period : periods) {
+                if (period.getCategoryId() == null) {
+                    uncategorized.add(period);
+                } else {
+                    categorized.computeIfAbsent(period.getCategoryId(), k -> new ArrayList<>()).add(period);
+                }
+            }
+            return new UserBudgets(new Intervals(uncategorized), categorized.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> new Intervals(e.getValue()))));
+        }
+    }
+
+    /**
+     * Budget periods sorted by start date, with the running maximum end date so a
+     * stabbing query can stop as soon as no earlier period can reach the date.
+     */
+    private static final class Intervals {
+        private final long[] ids;
+        private final LocalDate[] starts;
+        private final LocalDate[] ends;
+        private final LocalDate[] maxEnds;
+
+        private Intervals(List<BudgetRepository.BudgetPeriod> periods) {
+            List<BudgetRepository.BudgetPeriod> sorted = new ArrayList<>(periods);
+            sorted.sort(Comparator.comparing(BudgetRepository.BudgetPeriod::getStartDate));
+            int n = sorted.size();
+            ids = new long[n];
+            starts = new LocalDate[n];
+            ends = new LocalDate[n];
+            maxEnds = new LocalDate[n];
+            for (int i = 0; i < n; i++) {
+                BudgetRepository.BudgetPeriod period = sorted.get(i);
+                ids[i] = period.getId();
+                starts[i] = period.getStartDate();
+                ends[i] = period.getEndDate();
+                maxEnds[i] = i == 0 || ends[i].isAfter(maxEnds[i - 1]) ? ends[i] : maxEnds[i - 1];
+            }
+        }
+
+        private void collect(LocalDate date, List<Long> out) {
+            // Periods starting on or before date occupy [0, upper)
+            int low = 0;
+            int upper = starts.length;
+            while (low < upper) {
+                int mid = (low + upper) >>> 1;
+                if (starts[mid].isAfter(date)) {
+                    upper = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            for (int i = upper - 1; i >= 0 && !maxEnds[i].isBefore(date); i--) {
+                if (!ends[i].isBefore(date)) {
+                    out.add(ids[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.BudgetJobRunDTO;
+import com.money.money_manager.dto.BudgetJobShardDTO;
+import com.money.money_manager.entity.Budget;
+import com.money.money_manager.entity.BudgetJobCheckpoint;
+import com.money.money_manager.event.UserDataChangedEvent;
+import com.money.money_manager.exception.ResourceNotFoundException;
+import com.money.money_manager.repository.BudgetDailySnapshotRepository;
+import com.money.money_manager.repository.BudgetJobCheckpointRepository;
+import com.money.money_manager.repository.BudgetRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly reconciliation of budget spent amounts against the transactions table.
+ *
+ * A run splits the users owning active budgets into fixed-width user-id ranges
+ * (shards), recorded in budget_job_checkpoints, and runs the shards on a bounded
+ * worker pool. Within a shard, budgets are walked in id order in chunks; each chunk
+ * runs in its own transaction: one grouped query sums spent for every budget in the
+ * chunk, only budgets whose amount or status changed are written (and alerted on),
+ * the rest just get their recalculation time stamped, and the shard's checkpoint
+ * advances in the same commit. A run interrupted by a crash or a failed shard is
+ * picked up again from the last committed chunk, up to MAX_SHARD_ATTEMPTS starts
+ * per shard.
+ */
+@Service
+@Slf4j
+public class BudgetReconciliationService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int CHECKPOINT_RETENTION_DAYS = 30;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_SHARD_ATTEMPTS = 3;
+    // Keep in step with the cron expression of recalculateAllBudgets
+    private static final LocalTime SCHEDULED_RUN_TIME = LocalTime.of(2, 0);
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetJobCheckpointRepository checkpointRepository;
+    private final BudgetDailySnapshotRepository budgetDailySnapshotRepository;
+    private final BudgetService budgetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final long shardUsers;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BudgetReconciliationService(BudgetRepository budgetRepository,
+                                       BudgetJobCheckpointRepository checkpointRepository,
+                                       BudgetDailySnapshotRepository budgetDailySnapshotRepository,
+                                       BudgetService budgetService,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${budget.reconciliation.threads:4}") int threads,
+                                       @Value("${budget.reconciliation.shard-users:1000}") long shardUsers) {
+        this.budgetRepository = budgetRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.budgetDailySnapshotRepository = budgetDailySnapshotRepository;
+        this.budgetService = budgetService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardUsers = shardUsers;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "budget-reconcile-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Recalculate all active budgets (scheduled job).
+     */
+    @Scheduled(cron = "0 0 2 * * ?") // Daily at 02:00 server time
+    public void recalculateAllBudgets() {
+        run(LocalDate.now(), true);
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.deleteOlderThan(LocalDate.now().minusDays(CHECKPOINT_RETENTION_DAYS)));
+    }
+
+    /**
+     * Finish today's run if it was interrupted (application restart) or a shard failed.
+     * Also starts it if the scheduled time has passed without a run being planned,
+     * e.g. because the nightly call found this method holding the job.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 600_000)
+    public void resumeInterruptedRun() {
+        run(LocalDate.now(), !LocalTime.now().isBefore(SCHEDULED_RUN_TIME));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Shards and timings of the most recent run.
+     */
+    public BudgetJobRunDTO getLatestRun() {
+        LocalDate runDate = checkpointRepository.findLatestRunDate()
+                .orElseThrow(() -> new ResourceNotFoundException("No budget recalculation run found"));
+        List<BudgetJobShardDTO> shards = checkpointRepository.findByRunDateOrderByFromUserId(runDate).stream()
+                .map(this::mapToShardDTO)
+                .toList();
+
+        return BudgetJobRunDTO.builder()
+                .runDate(runDate)
+                .running(running.get())
+                .totalShards(shards.size())
+                .doneShards(countShards(shards, BudgetJobCheckpoint.Status.DONE))
+                .failedShards(countShards(shards, BudgetJobCheckpoint.Status.FAILED))
+                .budgetsChecked(shards.stream().mapToLong(BudgetJobShardDTO::getBudgetsChecked).sum())
+                .budgetsUpdated(shards.stream().mapToLong(BudgetJobShardDTO::getBudgetsUpdated).sum())
+                .totalShardMillis(shards.stream().mapToLong(BudgetJobShardDTO::getDurationMs).sum())
+                .maxShardMillis(shards.stream().mapToLong(BudgetJobShardDTO::getDurationMs).max().orElse(0))
+                .shards(shards)
+                .build();
+    }
+
+    private void run(LocalDate runDate, boolean planIfMissing) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Budget recalculation already in progress, skipping");
+            return;
+        }
+        try {
+            List<BudgetJobCheckpoint> shards = checkpointRepository.findByRunDateOrderByFromUserId(runDate);
+            if (shards.isEmpty() && planIfMissing) {
+                shards = planShards(runDate);
+            }
+            List<BudgetJobCheckpoint> unfinished = shards.stream()
+                    .filter(shard -> shard.getStatus() != BudgetJobCheckpoint.Status.DONE)
+                    .toList();
+            // Shards that keep failing are left for the next night's run
+            List<BudgetJobCheckpoint> remaining = unfinished.stream()
+                    .filter(shard -> shard.getAttempts() < MAX_SHARD_ATTEMPTS)
+                    .toList();
+            if (remaining.size() < unfinished.size()) {
+                log.debug("Budget recalculation for {}: {} shards gave up after {} attempts",
+                        runDate, unfinished.size() - remaining.size(), MAX_SHARD_ATTEMPTS);
+            }
+            if (remaining.isEmpty()) {
+                return;
+            }
+
+            log.info("Starting budget recalculation for {}: {} of {} shards to run",
+                    runDate, remaining.size(), shards.size());
+            long started = System.currentTimeMillis();
+
+            List<Future<?>> futures = new ArrayList<>(remaining.size());
+            for (BudgetJobCheckpoint shard : remaining) {
+                futures.add(executor.submit(() -> runShard(shard)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    log.error("Budget recalculation shard task failed", e.getCause());
+                }
+            }
+
+            List<BudgetJobCheckpoint> results = checkpointRepository.findByRunDateOrderByFromUserId(runDate);
+            log.info("Completed budget recalculation for {}: {} budgets checked, {} updated, {} of {} shards failed in {} ms",
+                    runDate,
+                    results.stream().mapToLong(BudgetJobCheckpoint::getBudgetsChecked).sum(),
+                    results.stream().mapToLong(BudgetJobCheckpoint::getBudgetsUpdated).sum(),
+                    results.stream().filter(shard -> shard.getStatus() == BudgetJobCheckpoint.Status.FAILED).count(),
+                    results.size(),
+                    System.currentTimeMillis() - started);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<BudgetJobCheckpoint> planShards(LocalDate runDate) {
+        BudgetRepository.UserIdRange range = budgetRepository.findActiveBudgetUserIdRange();
+        if (range == null || range.getMinUserId() == null) {
+            return List.of();
+        }
+
+        List<BudgetJobCheckpoint> shards = new ArrayList<>();
+        for (long from = range.getMinUserId(); from <= range.getMaxUserId(); from += shardUsers) {
+            shards.add(BudgetJobCheckpoint.builder()
+                    .runDate(runDate)
+                    .fromUserId(from)
+                    .toUserId(Math.min(from + shardUsers - 1, range.getMaxUserId()))
+                    .build());
+        }
+        return transactionTemplate.execute(status -> checkpointRepository.saveAll(shards));
+    }
+
+    private void runShard(BudgetJobCheckpoint shard) {
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.markRunning(shard.getId(), LocalDateTime.now()));
+
+        long lastId = shard.getLastBudgetId();
+        try {
+            while (true) {
+                List<Long> ids = budgetRepository.findActiveBudgetIdsAfter(
+                        shard.getFromUserId(), shard.getToUserId(), lastId, PageRequest.of(0, CHUNK_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                long chunkLastId = ids.get(ids.size() - 1);
+                transactionTemplate.executeWithoutResult(status -> {
+                    int updated = reconcileChunk(ids);
+                    checkpointRepository.advance(shard.getId(), chunkLastId, ids.size(), updated);
+                });
+                lastId = chunkLastId;
+
+                if (ids.size() < CHUNK_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            long elapsed = System.currentTimeMillis() - started;
+            log.error("Budget recalculation shard users {}..{} failed after budget {}: {}",
+                    shard.getFromUserId(), shard.getToUserId(), lastId, e.getMessage());
+            String error = e.getMessage() != null && e.getMessage().length() > MAX_ERROR_LENGTH
+                    ? e.getMessage().substring(0, MAX_ERROR_LENGTH) : e.getMessage();
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.finish(
+                    shard.getId(), BudgetJobCheckpoint.Status.FAILED, elapsed, error, null));
+            return;
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.finish(
+                shard.getId(), BudgetJobCheckpoint.Status.DONE, elapsed, null, LocalDateTime.now()));
+        log.debug("Budget recalculation shard users {}..{} done in {} ms",
+                shard.getFromUserId(), shard.getToUserId(), elapsed);
+    }
+
+    /**
+     * Reconcile one chunk inside the caller's transaction.
+     *
+     * @return the number of budgets whose spent amount or status changed
+     */
+    private int reconcileChunk(List<Long> ids) {
+        List<Budget> budgets = budgetRepository.findAllWithUserByIdIn(ids);
+
+        // Taken before the sum: deltas written after this point are not in it
+        LocalDateTime recalculatedAt = LocalDateTime.now();
+        Map<Long, BigDecimal> spentById = budgetRepository.sumSpentByBudgetIds(ids).stream()
+                .collect(Collectors.toMap(BudgetRepository.BudgetSpent::getBudgetId,
+                        BudgetRepository.BudgetSpent::getSpentAmount));
+
+        List<Long> unchanged = new ArrayList<>();
+        Set<Long> changedUserIds = new HashSet<>();
+        int updated = 0;
+        for (Budget budget : budgets) {
+            BigDecimal spent = spentById.getOrDefault(budget.getId(), BigDecimal.ZERO);
+            boolean amountChanged = spent.compareTo(budget.getSpentAmount()) != 0;
+            boolean statusChanged = budgetService.calculateBudgetStatus(budget, spent) != budget.getStatus();
+            if (!amountChanged && !statusChanged) {
+                unchanged.add(budget.getId());
+                continue;
+            }
+            budget.setSpentRecalculatedAt(recalculatedAt);
+            budgetService.applySpentAmount(budget, spent);
+            changedUserIds.add(budget.getUser().getId());
+            updated++;
+        }
+
+        if (!unchanged.isEmpty()) {
+            budgetRepository.markSpentRecalculated(unchanged, recalculatedAt);
+        }
+        // Every active budget gets a point in its history, even on days without writes
+        budgetDailySnapshotRepository.upsertFromBudgets(ids, recalculatedAt.toLocalDate());
+        changedUserIds.forEach(userId -> eventPublisher.publishEvent(
+                UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.BUDGETS)));
+        return updated;
+    }
+
+    private BudgetJobShardDTO mapToShardDTO(BudgetJobCheckpoint shard) {
+        return BudgetJobShardDTO.builder()
+                .fromUserId(shard.getFromUserId())
+                .toUserId(shard.getToUserId())
+                .status(shard.getStatus().name())
+                .lastBudgetId(shard.getLastBudgetId())
+                .budgetsChecked(shard.getBudgetsChecked())
+                .budgetsUpdated(shard.getBudgetsUpdated())
+                .attempts(shard.getAttempts())
+                .durationMs(shard.getDurationMs())
+                .lastError(shard.getLastError())
+                .startedAt(shard.getStartedAt())
+                .completedAt(shard.getCompletedAt())
+                .build();
+    }
+
+    private static int countShards(List<BudgetJobShardDTO> shards, BudgetJobCheckpoint.Status status) {
+        return (int) shards.stream().filter(shard -> shard.getStatus().equals(status.name())).count();
+    }
+}
@@ -0,0 +1,184 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.entity.Budget;
+import com.money.money_manager.event.UserDataChangedEvent;
+import com.money.money_manager.repository.BudgetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly rollover of recurring budgets and completion of expired ones.
+ *
+ * Recurring budgets (MONTHLY, QUARTERLY, YEARLY) act as their own template: once a
+ * period ends, a copy covering the next period is created, with the unspent amount
+ * added to its limit when carry-over is on. Due budgets are handled in id-ordered
+ * chunks, one transaction each: the new budgets are inserted in one JDBC batch, their
+ * initial spend (backdated expenses) comes from one grouped query, and the source
+ * budgets are marked rolled over in one UPDATE. Expired ACTIVE budgets are then
+ * marked COMPLETED a chunk at a time.
+ */
+@Service
+@Slf4j
+public class BudgetRolloverService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
+    private final BudgetIntervalIndex budgetIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public BudgetRolloverService(BudgetRepository budgetRepository,
+                                 BudgetService budgetService,
+                                 BudgetIntervalIndex budgetIntervalIndex,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.budgetService = budgetService;
+        this.budgetIntervalIndex = budgetIntervalIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "0 30 0 * * ?") // Daily at 00:30 server time
+    public void rollOverBudgets() {
+        LocalDate today = LocalDate.now();
+        log.info("Starting budget rollover for {}", today);
+
+        long lastId = 0;
+        int created = 0;
+        while (true) {
+            List<Long> ids = budgetRepository.findRolloverDueIdsAfter(today, lastId, PageRequest.of(0, CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            try {
+                Integer chunkCreated = transactionTemplate.execute(status -> rollOverChunk(ids, today));
+                created += chunkCreated != null ? chunkCreated : 0;
+            } catch (RuntimeException e) {
+                log.error("Failed to roll over budgets {}..{}: {}", ids.get(0), lastId, e.getMessage());
+            }
+            if (ids.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        int completed = completeExpiredBudgets(today);
+        log.info("Completed budget rollover: {} budgets created, {} marked completed", created, completed);
+    }
+
+    private int rollOverChunk(List<Long> ids, LocalDate today) {
+        List<Budget> sources = budgetRepository.findAllForRolloverByIdIn(ids);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Budget> next = new ArrayList<>(sources.size());
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Budget source : sources) {
+            next.add(nextPeriod(source, today, now));
+            userIds.add(source.getUser().getId());
+        }
+        budgetRepository.saveAll(next);
+        budgetRepository.flush();
+
+        // Expenses may already be dated inside the new periods
+        List<Long> nextIds = next.stream().map(Budget::getId).collect(Collectors.toList());
+        Map<Long, BigDecimal> spentById = budgetRepository.sumSpentByBudgetIds(nextIds).stream()
+                .collect(Collectors.toMap(BudgetRepository.BudgetSpent::getBudgetId,
+                        BudgetRepository.BudgetSpent::getSpentAmount));
+        for (Budget budget : next) {
+            BigDecimal spent = spentById.getOrDefault(budget.getId(), BigDecimal.ZERO);
+            if (spent.signum() != 0) {
+                budgetService.applySpentAmount(budget, spent);
+            }
+        }
+
+        budgetRepository.markRolledOver(ids, now);
+        for (Long userId : userIds) {
+            budgetIntervalIndex.invalidate(userId);
+            eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.BUDGETS));
+        }
+        return next.size();
+    }
+
+    /**
+     * The budget for the first period after source that has not ended yet. Periods are
+     * counted from the series anchor rather than chained, so a month-end start clamped
+     * by a short month returns to the anchor's day afterwards. Unspent amount is only
+     * carried over when that period directly follows source.
+     */
+    static Budget nextPeriod(Budget source, LocalDate today, LocalDateTime now) {
+        Budget.Recurrence recurrence = source.getRecurrence();
+        LocalDate anchor = source.getAnchorDate() != null ? source.getAnchorDate() : source.getStartDate();
+        int index = 1;
+        while (!recurrence.periodStart(anchor, index).isAfter(source.getEndDate())) {
+            index++;
+        }
+        boolean skippedPeriods = false;
+        while (recurrence.periodStart(anchor, index + 1).minusDays(1).isBefore(today)) {
+            index++;
+            skippedPeriods = true;
+        }
+        LocalDate start = recurrence.periodStart(anchor, index);
+        LocalDate end = recurrence.periodStart(anchor, index + 1).minusDays(1);
+
+        BigDecimal baseLimit = source.getLimitAmount().subtract(source.getCarriedOverAmount());
+        BigDecimal carried = source.isCarryOver() && !skippedPeriods
+                ? source.getLimitAmount().subtract(source.getSpentAmount()).max(BigDecimal.ZERO)
+                : BigDecimal.ZERO;
+
+        return Budget.builder()
+                .user(source.getUser())
+                .category(source.getCategory())
+                .name(source.getName())
+                .description(source.getDescription())
+                .limitAmount(baseLimit.add(carried))
+                .carriedOverAmount(carried)
+                .spentAmount(BigDecimal.ZERO)
+                .startDate(start)
+                .endDate(end)
+                .anchorDate(anchor)
+                .status(Budget.BudgetStatus.ACTIVE)
+                .thresholdPercent(source.getThresholdPercent())
+                .recurrence(recurrence)
+                .carryOver(source.isCarryOver())
+                // Set before the initial sum, so deltas for writes after it still apply
+                .spentRecalculatedAt(now)
+                .build();
+    }
+
+    private int completeExpiredBudgets(LocalDate today) {
+        long lastId = 0;
+        int completed = 0;
+        while (true) {
+            List<Long> ids = budgetRepository.findExpiredActiveIdsAfter(today, lastId, PageRequest.of(0, CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            Integer updated = transactionTemplate.execute(status ->
+                    budgetRepository.markCompleted(ids, LocalDateTime.now()));
+            completed += updated != null ? updated : 0;
+            if (ids.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        return completed;
+    }
+}
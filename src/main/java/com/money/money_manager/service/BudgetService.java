@@ -2,27 +2,43 @@ package com.money.money_manager.service;
 
 import com.money.money_manager.aop.Auditable;
 import com.money.money_manager.dto.BudgetDTO;
+import com.money.money_manager.dto.BudgetSnapshotDTO;
 import com.money.money_manager.dto.BudgetSummaryDTO;
+import com.money.money_manager.dto.CursorPageDTO;
+import com.money.money_manager.dto.TransactionChangeDTO;
+import com.money.money_manager.dto.TransactionSnapshot;
 import com.money.money_manager.entity.Budget;
 import com.money.money_manager.entity.Category;
+import com.money.money_manager.entity.SyncTombstone;
 import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.User;
+import com.money.money_manager.event.BudgetStatusChangedEvent;
+import com.money.money_manager.event.UserDataChangedEvent;
 import com.money.money_manager.exception.ResourceNotFoundException;
+import com.money.money_manager.repository.BudgetDailySnapshotRepository;
 import com.money.money_manager.repository.BudgetRepository;
 import com.money.money_manager.repository.CategoryRepository;
+import com.money.money_manager.repository.SyncTombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Service for managing budgets with automatic recalculation and notifications.
@@ -34,9 +50,20 @@ import java.util.List;
 @Slf4j
 public class BudgetService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Longer than any transaction write takes to commit
+    static final Duration RECALCULATION_SAFETY_MARGIN = Duration.ofMinutes(5);
+    private static final int HISTORY_DEFAULT_DAYS = 90;
+    private static final int HISTORY_MAX_DAYS = 366;
+
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
-    private final NotificationService notificationService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final BudgetIntervalIndex budgetIntervalIndex;
+    private final BudgetForecastService budgetForecastService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BudgetDailySnapshotRepository budgetDailySnapshotRepository;
 
     /**
      * Create a new budget for user.
@@ -60,14 +87,20 @@ public class BudgetService {
                 .spentAmount(BigDecimal.ZERO)
                 .startDate(dto.getStartDate())
                 .endDate(dto.getEndDate())
+                .anchorDate(dto.getStartDate())
                 .status(Budget.BudgetStatus.ACTIVE)
                 .thresholdPercent(dto.getThresholdPercent())
+                .recurrence(recurrenceOf(dto))
+                .carryOver(dto.isCarryOver())
                 .build();
 
         Budget savedBudget = budgetRepository.save(budget);
+        budgetIntervalIndex.invalidate(currentUser.getId());
+        publishBudgetsChanged(currentUser.getId());
         
         // Calculate initial spent amount
         recalculateBudget(savedBudget);
+        budgetDailySnapshotRepository.upsertFromBudgets(List.of(savedBudget.getId()), LocalDate.now());
         
         return mapToSummaryDTO(savedBudget);
     }
@@ -92,14 +125,23 @@ public class BudgetService {
         budget.setDescription(dto.getDescription());
         budget.setCategory(category);
         budget.setLimitAmount(dto.getLimitAmount());
+        // Moving the start re-anchors the series; other edits keep the original anchor
+        if (!dto.getStartDate().equals(budget.getStartDate())) {
+            budget.setAnchorDate(dto.getStartDate());
+        }
         budget.setStartDate(dto.getStartDate());
         budget.setEndDate(dto.getEndDate());
         budget.setThresholdPercent(dto.getThresholdPercent());
+        budget.setRecurrence(recurrenceOf(dto));
+        budget.setCarryOver(dto.isCarryOver());
 
         Budget savedBudget = budgetRepository.save(budget);
+        budgetIntervalIndex.invalidate(currentUser.getId());
+        publishBudgetsChanged(currentUser.getId());
         
         // Recalculate after update
         recalculateBudget(savedBudget);
+        budgetDailySnapshotRepository.upsertFromBudgets(List.of(savedBudget.getId()), LocalDate.now());
         
         return mapToSummaryDTO(savedBudget);
     }
@@ -115,6 +157,9 @@ public class BudgetService {
                 .orElseThrow(() -> new ResourceNotFoundException("Budget not found"));
 
         budgetRepository.delete(budget);
+        budgetIntervalIndex.invalidate(currentUser.getId());
+        publishBudgetsChanged(currentUser.getId());
+        syncTombstoneRepository.save(SyncTombstone.of(currentUser.getId(), SyncTombstone.EntityType.BUDGET, id));
     }
 
     /**
@@ -123,22 +168,35 @@ public class BudgetService {
     @Transactional(readOnly = true)
     public Page<BudgetSummaryDTO> getUserBudgets(User currentUser, List<String> statuses, 
                                                  boolean activeOnly, Pageable pageable) {
-        List<Budget.BudgetStatus> statusList;
-        
-        if (activeOnly) {
-            statusList = Arrays.asList(Budget.BudgetStatus.ACTIVE, Budget.BudgetStatus.EXCEEDED);
-        } else if (statuses != null && !statuses.isEmpty()) {
-            statusList = statuses.stream()
-                    .map(Budget.BudgetStatus::valueOf)
-                    .toList();
+        Page<BudgetSummaryDTO> summaries = budgetRepository.findSummariesByUserIdAndStatusIn(
+                currentUser.getId(), statusFilter(statuses, activeOnly), pageable);
+        budgetForecastService.applyForecasts(summaries.getContent());
+        return summaries;
+    }
+
+    /**
+     * Keyset page of user budgets, newest first. Pass the returned nextCursor
+     * back to get the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BudgetSummaryDTO> getUserBudgetsPage(User currentUser, List<String> statuses,
+                                                              boolean activeOnly, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        List<Budget.BudgetStatus> statusList = statusFilter(statuses, activeOnly);
+
+        Pageable window = KeysetCursor.window(pageSize);
+        List<BudgetSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = budgetRepository.findFirstSummaryPage(currentUser.getId(), statusList, window);
         } else {
-            statusList = Arrays.asList(Budget.BudgetStatus.values());
+            KeysetCursor.Key<LocalDateTime> after = KeysetCursor.decodeKey(cursor, LocalDateTime::parse);
+            rows = budgetRepository.findSummaryPageAfter(currentUser.getId(), statusList, after.value, after.id, window);
         }
 
-        Page<Budget> budgets = budgetRepository.findByUserIdAndStatusIn(
-                currentUser.getId(), statusList, pageable);
-        
-        return budgets.map(this::mapToSummaryDTO);
+        CursorPageDTO<BudgetSummaryDTO> page = KeysetCursor.page(rows, pageSize,
+                BudgetSummaryDTO::getCreatedAt, BudgetSummaryDTO::getId);
+        budgetForecastService.applyForecasts(page.getContent());
+        return page;
     }
 
     /**
@@ -146,22 +204,59 @@ public class BudgetService {
      */
     @Transactional(readOnly = true)
     public List<BudgetSummaryDTO> getExceededBudgets(User currentUser) {
-        List<Budget> budgets = budgetRepository.findByUserIdAndStatus(
+        List<BudgetSummaryDTO> summaries = budgetRepository.findSummariesByUserIdAndStatus(
                 currentUser.getId(), Budget.BudgetStatus.EXCEEDED);
-        
-        return budgets.stream()
-                .map(this::mapToSummaryDTO)
+        budgetForecastService.applyForecasts(summaries);
+        return summaries;
+    }
+
+    /**
+     * Daily spend history of a budget between from and to (inclusive), oldest first.
+     * Defaults to the last HISTORY_DEFAULT_DAYS days.
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetSnapshotDTO> getBudgetHistory(Long id, User currentUser, LocalDate from, LocalDate to) {
+        if (!budgetRepository.existsByIdAndUserId(id, currentUser.getId())) {
+            throw new ResourceNotFoundException("Budget not found");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(HISTORY_DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > HISTORY_MAX_DAYS) {
+            throw new IllegalArgumentException("History range cannot exceed " + HISTORY_MAX_DAYS + " days");
+        }
+
+        return budgetDailySnapshotRepository.findRange(id, start, end).stream()
+                .map(s -> new BudgetSnapshotDTO(s.getSnapshotDate(), s.getSpentAmount(), s.getLimitAmount()))
                 .toList();
     }
 
+    private static List<Budget.BudgetStatus> statusFilter(List<String> statuses, boolean activeOnly) {
+        if (activeOnly) {
+            return Arrays.asList(Budget.BudgetStatus.ACTIVE, Budget.BudgetStatus.EXCEEDED);
+        } else if (statuses != null && !statuses.isEmpty()) {
+            return statuses.stream()
+                    .map(Budget.BudgetStatus::valueOf)
+                    .toList();
+        }
+        return Arrays.asList(Budget.BudgetStatus.values());
+    }
+
     /**
-     * Recalculate single budget spent amount and status.
+     * Recalculate single budget spent amount and status with a full SUM over its period.
+     * Used on budget create/update and manual recalculation (the nightly job sums
+     * budgets in bulk, see BudgetReconciliationService);
+     * transaction writes apply deltas instead (see onTransactionsChanged).
      * Uses BigDecimal for precise money calculations.
      */
     @Transactional
     public void recalculateBudget(Budget budget) {
         log.debug("Recalculating budget: {}", budget.getId());
 
+        LocalDateTime recalculatedAt = LocalDateTime.now();
+
         // Calculate spent amount from transactions
         BigDecimal spentAmount = budgetRepository.calculateSpentAmount(
                 budget.getUser().getId(),
@@ -170,6 +265,18 @@ public class BudgetService {
                 budget.getEndDate()
         );
 
+        budget.setSpentRecalculatedAt(recalculatedAt);
+        applySpentAmount(budget, spentAmount);
+    }
+
+    /**
+     * Store a freshly computed spent amount and update the status. A status change
+     * is published as an event; threshold alerts are sent from it after commit.
+     * Only the spent, status and recalculation columns are written (Budget is
+     * @DynamicUpdate), so edits to the budget made since it was loaded are kept.
+     */
+    @Transactional
+    public void applySpentAmount(Budget budget, BigDecimal spentAmount) {
         budget.setSpentAmount(spentAmount);
 
         // Update status based on spent amount
@@ -179,54 +286,117 @@ public class BudgetService {
 
         budgetRepository.save(budget);
 
-        // Send notification if threshold exceeded and not already notified recently
-        if (newStatus == Budget.BudgetStatus.EXCEEDED && 
-            shouldSendThresholdAlert(budget, oldStatus)) {
-            sendThresholdExceededNotification(budget);
+        if (newStatus != oldStatus) {
+            eventPublisher.publishEvent(BudgetStatusChangedEvent.of(budget, oldStatus));
         }
 
-        log.debug("Budget {} recalculated: spent={}, status={}", 
+        log.debug("Budget {} updated: spent={}, status={}", 
                  budget.getId(), spentAmount, newStatus);
     }
 
     /**
-     * Recalculate all active budgets (scheduled job).
+     * Handle changes to a user's transactions (creates, updates and deletes), each
+     * given as the rows before and after. Several changes can be passed at once:
+     * each affected budget gets the net signed difference of its matching expenses
+     * applied to spentAmount in one UPDATE, so the cost depends on the number of
+     * budgets hit, not on how many transactions or changes there are.
+     * A change written well before a budget's last full recalculation is already
+     * counted and is skipped for that budget; one written shortly before it may have
+     * committed after the recalculation read the transactions, so the budget is
+     * recounted instead.
+     *
+     * @return the number of budgets whose spent amount changed
      */
-    @Scheduled(cron = "0 0 2 * * ?") // Daily at 02:00 server time
     @Transactional
-    public void recalculateAllBudgets() {
-        log.info("Starting scheduled budget recalculation");
-        
-        List<Budget> activeBudgets = budgetRepository.findAllActiveBudgets();
-        
-        for (Budget budget : activeBudgets) {
-            try {
+    public int onTransactionsChanged(Long userId, List<TransactionChangeDTO> changes) {
+        List<TransactionSnapshot> expenses = changes.stream()
+                .flatMap(c -> Stream.concat(c.getBefore().stream(), c.getAfter().stream()))
+                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
+                .toList();
+        if (expenses.isEmpty()) {
+            return 0;
+        }
+
+        // Budgets the expenses fall into, from the in-memory index; only those are loaded
+        Set<Long> hitIds = new TreeSet<>();
+        for (TransactionSnapshot expense : expenses) {
+            hitIds.addAll(budgetIntervalIndex.findBudgetIds(
+                    userId, expense.getCategoryId(), expense.getTransactionDate()));
+        }
+        if (hitIds.isEmpty()) {
+            return 0;
+        }
+        // The transactions are committed, so forecasts recomputed from here on see them
+        budgetForecastService.invalidate(hitIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> updatedIds = new ArrayList<>();
+        List<Budget> candidates = budgetRepository.findAllById(hitIds).stream()
+                .filter(b -> b.getStatus() == Budget.BudgetStatus.ACTIVE || b.getStatus() == Budget.BudgetStatus.EXCEEDED)
+                .sorted(Comparator.comparing(Budget::getId))
+                .toList();
+        for (Budget budget : candidates) {
+            BigDecimal delta = BigDecimal.ZERO;
+            boolean recount = false;
+            for (TransactionChangeDTO change : changes) {
+                if (!touches(budget, change)) {
+                    continue;
+                }
+                LocalDateTime recalculatedAt = budget.getSpentRecalculatedAt();
+                if (recalculatedAt != null && !change.getChangedAt().isAfter(recalculatedAt)) {
+                    if (change.getChangedAt().isBefore(recalculatedAt.minus(RECALCULATION_SAFETY_MARGIN))) {
+                        continue;
+                    }
+                    // changedAt is stamped before commit: the recalculation may not have seen this write
+                    recount = true;
+                    break;
+                }
+                delta = delta.add(sumMatching(budget, expensesOf(change.getAfter())))
+                        .subtract(sumMatching(budget, expensesOf(change.getBefore())));
+            }
+            if (recount) {
+                // The writes have committed by now, so a fresh sum includes them exactly once
+                BigDecimal spentBefore = budget.getSpentAmount();
                 recalculateBudget(budget);
-            } catch (Exception e) {
-                log.error("Failed to recalculate budget {}: {}", budget.getId(), e.getMessage());
+                if (spentBefore.compareTo(budget.getSpentAmount()) != 0) {
+                    updatedIds.add(budget.getId());
+                }
+                continue;
+            }
+            if (delta.signum() == 0) {
+                continue;
             }
+            budgetRepository.addToSpentAmount(budget.getId(), delta, now);
+            // Read back the committed-to-be value; the UPDATE holds the row lock until commit
+            applySpentAmount(budget, budgetRepository.findSpentAmountById(budget.getId()));
+            updatedIds.add(budget.getId());
         }
-        
-        log.info("Completed scheduled budget recalculation for {} budgets", activeBudgets.size());
+        if (!updatedIds.isEmpty()) {
+            budgetDailySnapshotRepository.upsertFromBudgets(updatedIds, LocalDate.now());
+            publishBudgetsChanged(userId);
+        }
+        return updatedIds.size();
     }
 
-    /**
-     * Handle transaction created/updated/deleted events.
-     * Updates affected budgets efficiently.
-     */
-    @Transactional
-    public void onTransactionCreated(Transaction transaction) {
-        updateAffectedBudgets(transaction);
+    private boolean touches(Budget budget, TransactionChangeDTO change) {
+        return sumMatching(budget, expensesOf(change.getBefore())).signum() != 0
+                || sumMatching(budget, expensesOf(change.getAfter())).signum() != 0;
     }
 
-    @Transactional
-    public void onTransactionUpdated(Transaction transaction) {
-        updateAffectedBudgets(transaction);
+    private List<TransactionSnapshot> expensesOf(List<TransactionSnapshot> transactions) {
+        return transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.EXPENSE)
+                .toList();
     }
 
-    @Transactional
-    public void onTransactionDeleted(Transaction transaction) {
-        updateAffectedBudgets(transaction);
+    private BigDecimal sumMatching(Budget budget, List<TransactionSnapshot> expenses) {
+        Long budgetCategoryId = budget.getCategory() != null ? budget.getCategory().getId() : null;
+        return expenses.stream()
+                .filter(t -> !t.getTransactionDate().isBefore(budget.getStartDate())
+                        && !t.getTransactionDate().isAfter(budget.getEndDate())
+                        && (budgetCategoryId == null || budgetCategoryId.equals(t.getCategoryId())))
+                .map(TransactionSnapshot::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     /**
@@ -238,33 +408,24 @@ public class BudgetService {
                 .orElseThrow(() -> new ResourceNotFoundException("Budget not found"));
 
         recalculateBudget(budget);
+        budgetDailySnapshotRepository.upsertFromBudgets(List.of(budget.getId()), LocalDate.now());
+        publishBudgetsChanged(currentUser.getId());
         return mapToSummaryDTO(budget);
     }
 
-    /**
-     * Update budgets affected by transaction change.
-     */
-    private void updateAffectedBudgets(Transaction transaction) {
-        if (transaction.getType() != Transaction.TransactionType.EXPENSE) {
-            return; // Only expense transactions affect budgets
-        }
-
-        List<Budget> affectedBudgets = budgetRepository.findBudgetsForTransaction(
-                transaction.getUser().getId(),
-                transaction.getTransactionDate(),
-                transaction.getCategory().getId()
-        );
-
-        for (Budget budget : affectedBudgets) {
-            recalculateBudget(budget);
-        }
+    private void publishBudgetsChanged(Long userId) {
+        eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.BUDGETS));
     }
 
     /**
      * Calculate budget status based on spent amount and period.
      */
     private Budget.BudgetStatus calculateBudgetStatus(Budget budget) {
-        if (budget.getSpentAmount().compareTo(budget.getLimitAmount()) > 0) {
+        return calculateBudgetStatus(budget, budget.getSpentAmount());
+    }
+
+    Budget.BudgetStatus calculateBudgetStatus(Budget budget, BigDecimal spentAmount) {
+        if (spentAmount.compareTo(budget.getLimitAmount()) > 0) {
             return Budget.BudgetStatus.EXCEEDED;
         }
         
@@ -275,61 +436,14 @@ public class BudgetService {
         return Budget.BudgetStatus.ACTIVE;
     }
 
-    /**
-     * Check if threshold alert should be sent.
-     * Throttles alerts to avoid spam (24 hour cooldown).
-     */
-    private boolean shouldSendThresholdAlert(Budget budget, Budget.BudgetStatus oldStatus) {
-        if (oldStatus == Budget.BudgetStatus.EXCEEDED) {
-            return false; // Already exceeded, don't send again
-        }
-
-        if (budget.getLastAlertSentAt() != null) {
-            LocalDateTime cooldownTime = budget.getLastAlertSentAt().plusHours(24);
-            if (LocalDateTime.now().isBefore(cooldownTime)) {
-                return false; // Still in cooldown period
-            }
-        }
-
-        return budget.isThresholdExceeded();
-    }
-
-    /**
-     * Send threshold exceeded notification.
-     */
-    @Async
-    private void sendThresholdExceededNotification(Budget budget) {
-        try {
-            String message = String.format(
-                "Budget '%s' has exceeded %d%% threshold. Spent: ₹%s of ₹%s limit.",
-                budget.getName(),
-                budget.getThresholdPercent(),
-                budget.getSpentAmount(),
-                budget.getLimitAmount()
-            );
-
-            notificationService.createNotification(
-                budget.getUser(),
-                message,
-                com.money.money_manager.entity.Notification.NotificationType.BUDGET_EXCEEDED
-            );
-
-            // Update last alert sent time
-            budget.setLastAlertSentAt(LocalDateTime.now());
-            budgetRepository.save(budget);
-
-            log.info("Threshold exceeded notification sent for budget: {}", budget.getId());
-
-        } catch (Exception e) {
-            log.error("Failed to send threshold notification for budget {}: {}", 
-                     budget.getId(), e.getMessage());
-        }
+    private static Budget.Recurrence recurrenceOf(BudgetDTO dto) {
+        return dto.getRecurrence() != null ? Budget.Recurrence.valueOf(dto.getRecurrence()) : Budget.Recurrence.NONE;
     }
 
     /**
      * Map Budget entity to BudgetSummaryDTO.
      */
-    private BudgetSummaryDTO mapToSummaryDTO(Budget budget) {
+    BudgetSummaryDTO mapToSummaryDTO(Budget budget) {
         return BudgetSummaryDTO.builder()
                 .id(budget.getId())
                 .name(budget.getName())
@@ -348,6 +462,9 @@ public class BudgetService {
                 .updatedAt(budget.getUpdatedAt())
                 .isPeriodActive(budget.isPeriodActive())
                 .isThresholdExceeded(budget.isThresholdExceeded())
+                .recurrence(budget.getRecurrence().name())
+                .carryOver(budget.isCarryOver())
+                .carriedOverAmount(budget.getCarriedOverAmount())
                 .build();
     }
 }
\ No newline at end of file
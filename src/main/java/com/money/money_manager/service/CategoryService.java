@@ -2,16 +2,21 @@ package com.money.money_manager.service;
 
 import com.money.money_manager.dto.CategoryDTO;
 import com.money.money_manager.entity.Category;
+import com.money.money_manager.entity.SyncTombstone;
 import com.money.money_manager.entity.User;
+import com.money.money_manager.event.UserDataChangedEvent;
 import com.money.money_manager.exception.ResourceNotFoundException;
 import com.money.money_manager.repository.CategoryRepository;
+import com.money.money_manager.repository.SyncTombstoneRepository;
 import com.money.money_manager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,7 +28,11 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final BudgetIntervalIndex budgetIntervalIndex;
+    private final RollupService rollupService;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CategoryDTO createCategory(Long userId, CategoryDTO categoryDTO) {
         log.info("Creating category for user: {}", userId);
@@ -91,6 +100,8 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        // Recent transactions on the dashboard show the category name
+        eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.CATEGORIES));
         log.info("Category updated successfully with ID: {}", categoryId);
         
         return modelMapper.map(updatedCategory, CategoryDTO.class);
@@ -102,7 +113,16 @@ public class CategoryService {
         Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
         
+        // Written before the delete, while the cascaded transactions can still be read
+        int deletedTransactions = syncTombstoneRepository.insertForCategoryTransactions(
+                userId, categoryId, LocalDateTime.now());
         categoryRepository.delete(category);
-        log.info("Category deleted successfully with ID: {}", categoryId);
+        // The category's transactions go with it (ON DELETE CASCADE), so do their totals
+        rollupService.recordCategoryDeleted(userId, categoryId);
+        // Budgets on this category lose it (ON DELETE SET NULL)
+        budgetIntervalIndex.invalidate(userId);
+        eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.CATEGORIES));
+        syncTombstoneRepository.save(SyncTombstone.of(userId, SyncTombstone.EntityType.CATEGORY, categoryId));
+        log.info("Category deleted successfully with ID: {} ({} transactions)", categoryId, deletedTransactions);
     }
 }
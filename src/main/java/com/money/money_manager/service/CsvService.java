@@ -1,7 +1,10 @@
 package com.money.money_manager.service;
 
+import com.money.money_manager.dto.TransactionChangeDTO;
 import com.money.money_manager.dto.TransactionDTO;
+import com.money.money_manager.dto.TransactionExportRow;
 import com.money.money_manager.entity.Category;
+import com.money.money_manager.entity.OutboxEvent;
 import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.User;
 import com.money.money_manager.repository.CategoryRepository;
@@ -10,15 +13,18 @@ import com.money.money_manager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,32 +34,52 @@ public class CsvService {
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final TagService tagService;
+    private final RollupService rollupService;
+    private final OutboxService outboxService;
 
     private static final String CSV_HEADER = "Title,Description,Amount,Type,Category,Date,PaymentMethod,Tags";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    public String exportTransactionsToCsv(Long userId) {
+    /**
+     * Write all of a user's transactions as CSV straight to the given stream.
+     * Rows come from a forward-only cursor, so memory use does not grow with history size.
+     */
+    @Transactional(readOnly = true)
+    public void writeTransactionsCsv(Long userId, OutputStream outputStream) throws IOException {
         log.info("Exporting transactions to CSV for user: {}", userId);
-        
-        List<Transaction> transactions = transactionRepository.findByUserId(userId);
-        StringBuilder csvContent = new StringBuilder();
-        csvContent.append(CSV_HEADER).append("\n");
-
-        for (Transaction transaction : transactions) {
-            csvContent.append(escapeSpecialCharacters(transaction.getTitle())).append(",")
-                    .append(escapeSpecialCharacters(transaction.getDescription())).append(",")
-                    .append(transaction.getAmount()).append(",")
-                    .append(transaction.getType()).append(",")
-                    .append(escapeSpecialCharacters(transaction.getCategory().getName())).append(",")
-                    .append(transaction.getTransactionDate().format(DATE_FORMATTER)).append(",")
-                    .append(escapeSpecialCharacters(transaction.getPaymentMethod())).append(",")
-                    .append(escapeSpecialCharacters(transaction.getTags()))
-                    .append("\n");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\n");
+
+        try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRowsByUserId(userId)) {
+            Iterator<TransactionExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TransactionExportRow row = iterator.next();
+                writer.write(escapeSpecialCharacters(row.getTitle()));
+                writer.write(',');
+                writer.write(escapeSpecialCharacters(row.getDescription()));
+                writer.write(',');
+                writer.write(row.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(row.getType().name());
+                writer.write(',');
+                writer.write(escapeSpecialCharacters(row.getCategoryName()));
+                writer.write(',');
+                writer.write(row.getTransactionDate().format(DATE_FORMATTER));
+                writer.write(',');
+                writer.write(escapeSpecialCharacters(row.getPaymentMethod()));
+                writer.write(',');
+                writer.write(escapeSpecialCharacters(row.getTags()));
+                writer.write('\n');
+            }
         }
 
-        return csvContent.toString();
+        writer.flush();
     }
 
+    @Transactional
     public ImportResult importTransactionsFromCsv(Long userId, MultipartFile file) {
         log.info("Importing transactions from CSV for user: {}", userId);
         
@@ -90,7 +116,11 @@ public class CsvService {
             }
 
             if (validTransactions.size() > 0) {
+                tagService.applyTags(user, validTransactions);
                 transactionRepository.saveAll(validTransactions);
+                rollupService.recordCreated(validTransactions);
+                outboxService.enqueue(userId, OutboxEvent.EventType.TRANSACTIONS_CREATED,
+                        TransactionChangeDTO.created(validTransactions));
                 result.setSuccessCount(validTransactions.size());
             }
 
@@ -0,0 +1,61 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.CacheStatsDTO;
+import com.money.money_manager.dto.DashboardDTO;
+import com.money.money_manager.event.UserDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of computed dashboards.
+ *
+ * An entry is dropped once a write that changes the user's transactions, budgets,
+ * goals, categories or notifications commits (UserDataChangedEvent). The TTL bounds staleness for
+ * what no write announces: the date moving on (upcoming budgets) and expired
+ * budgets being marked completed by the nightly rollover.
+ */
+@Component
+@Slf4j
+public class DashboardCache {
+
+    private static final int MAX_USERS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final BoundedCache<Long, DashboardDTO> cache = new BoundedCache<>(MAX_USERS, TTL);
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DashboardDTO get(Long userId, Supplier<DashboardDTO> loader) {
+        // A dashboard computed across a commit, or a partial one, is served once but not kept
+        return cache.getOrLoad(userId, loader, dashboard -> !dashboard.isPartial());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.getUserId());
+        log.debug("Dashboard cache invalidated for user {} ({})", event.getUserId(), event.getSource());
+    }
+
+    public CacheStatsDTO getStats() {
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        return CacheStatsDTO.builder()
+                .name("dashboard")
+                .size(cache.size())
+                .maxSize(MAX_USERS)
+                .ttlSeconds(TTL.toSeconds())
+                .hits(hits)
+                .misses(misses)
+                .hitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0)
+                .evictions(cache.evictionCount())
+                .expirations(cache.expirationCount())
+                .invalidations(invalidations.get())
+                .build();
+    }
+}
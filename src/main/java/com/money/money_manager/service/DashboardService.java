@@ -3,114 +3,257 @@ package com.money.money_manager.service;
 import com.money.money_manager.dto.DashboardDTO;
 import com.money.money_manager.dto.TransactionDTO;
 import com.money.money_manager.dto.BudgetDTO;
+import com.money.money_manager.dto.GoalStatisticsDTO;
 import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.Budget;
-import com.money.money_manager.entity.User;
 import com.money.money_manager.exception.ResourceNotFoundException;
 import com.money.money_manager.repository.TransactionRepository;
 import com.money.money_manager.repository.BudgetRepository;
+import com.money.money_manager.repository.MonthlyRollupRepository;
 import com.money.money_manager.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Builds user dashboards from independent sections: transaction totals, recent
+ * transactions, budget figures, goal statistics and the unread notification count.
+ *
+ * The sections are loaded concurrently on a bounded pool, each in its own
+ * read-only transaction, so a dashboard takes about as long as its slowest section.
+ * The whole fan-out shares one latency budget: a section that has not finished
+ * (or failed) by then is left empty and named in unavailableSections, and the
+ * dashboard is returned with partial set. The same goes for a section the pool
+ * rejects when its queue is full. Partial dashboards are not cached.
+ */
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 @Slf4j
 public class DashboardService {
 
+    private static final int DASHBOARD_LIST_SIZE = 5;
+    private static final int QUEUE_PER_THREAD = 64;
+
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final FinancialGoalService financialGoalService;
+    private final NotificationService notificationService;
     private final ModelMapper modelMapper;
+    private final DashboardCache dashboardCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    public DashboardService(TransactionRepository transactionRepository,
+                            BudgetRepository budgetRepository,
+                            UserRepository userRepository,
+                            MonthlyRollupRepository monthlyRollupRepository,
+                            FinancialGoalService financialGoalService,
+                            NotificationService notificationService,
+                            ModelMapper modelMapper,
+                            DashboardCache dashboardCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.fanout.threads:16}") int threads,
+                            @Value("${dashboard.fanout.timeout-ms:2000}") long timeoutMillis) {
+        this.transactionRepository = transactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.userRepository = userRepository;
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.financialGoalService = financialGoalService;
+        this.notificationService = notificationService;
+        this.modelMapper = modelMapper;
+        this.dashboardCache = dashboardCache;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Also ends the queries of a section the caller stopped waiting for
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * QUEUE_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // When saturated, reject sections so they are reported unavailable
+                // instead of loading on (and holding) the request thread
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 
     public DashboardDTO getDashboardStats(Long userId) {
         log.info("Fetching dashboard stats for user: {}", userId);
+        return dashboardCache.get(userId, () -> computeDashboardStats(userId));
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    private DashboardDTO computeDashboardStats(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        List<Transaction> userTransactions = transactionRepository.findByUserId(userId);
-        List<Budget> userBudgets = budgetRepository.findByUserId(userId);
+        long deadline = System.nanoTime() + timeoutNanos;
+        CompletableFuture<Totals> totalsFuture = load(() -> loadTotals(userId));
+        CompletableFuture<List<TransactionDTO>> recentFuture = load(() ->
+                transactionRepository.findFirstPageByUserId(userId, PageRequest.of(0, DASHBOARD_LIST_SIZE)));
+        CompletableFuture<BudgetFigures> budgetsFuture = load(() -> loadBudgetFigures(userId));
+        CompletableFuture<GoalStatisticsDTO> goalsFuture = load(() ->
+                financialGoalService.getGoalStatistics(userId));
+        CompletableFuture<Long> unreadFuture = load(() ->
+                notificationService.getUnreadCount(userRepository.getReferenceById(userId)));
 
-        // Calculate totals
-        BigDecimal totalIncome = userTransactions.stream()
-                .filter(t -> "INCOME".equals(t.getType().toString()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<String> unavailable = new ArrayList<>();
+        Totals totals = await("totals", totalsFuture, deadline, unavailable);
+        List<TransactionDTO> recentTransactions = await("recentTransactions", recentFuture, deadline, unavailable);
+        BudgetFigures budgets = await("budgets", budgetsFuture, deadline, unavailable);
+        GoalStatisticsDTO goals = await("goals", goalsFuture, deadline, unavailable);
+        Long unreadNotifications = await("notifications", unreadFuture, deadline, unavailable);
 
-        BigDecimal totalExpense = userTransactions.stream()
-                .filter(t -> "EXPENSE".equals(t.getType().toString()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        DashboardDTO.DashboardDTOBuilder dashboard = DashboardDTO.builder()
+                .recentTransactions(recentTransactions)
+                .goalStatistics(goals)
+                .unreadNotifications(unreadNotifications)
+                .partial(!unavailable.isEmpty())
+                .unavailableSections(unavailable);
 
-        BigDecimal balance = totalIncome.subtract(totalExpense);
+        if (totals != null) {
+            BigDecimal totalIncome = totals.income;
+            BigDecimal totalExpense = totals.expense;
 
-        BigDecimal budgetLimit = userBudgets.stream()
-                .map(Budget::getLimitAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Calculate percentages
+            Double incomePercentage = totalIncome.signum() > 0 ?
+                    (totalIncome.doubleValue() / (totalIncome.doubleValue() + totalExpense.doubleValue())) * 100 : 0;
+            Double expensePercentage = totalExpense.signum() > 0 ?
+                    (totalExpense.doubleValue() / (totalIncome.doubleValue() + totalExpense.doubleValue())) * 100 : 0;
 
-        BigDecimal budgetSpent = userBudgets.stream()
-                .map(Budget::getSpentAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            dashboard.totalIncome(totalIncome)
+                    .totalExpense(totalExpense)
+                    .balance(totalIncome.subtract(totalExpense))
+                    .totalTransactions((int) totals.transactionCount)
+                    .incomePercentage(incomePercentage)
+                    .expensePercentage(expensePercentage);
+        }
+        if (budgets != null) {
+            dashboard.budgetLimit(budgets.limit)
+                    .budgetSpent(budgets.spent)
+                    .totalBudgets((int) budgets.total)
+                    .activeBudgets((int) budgets.active)
+                    .exceededBudgets((int) budgets.exceeded)
+                    .upcomingBudgets(budgets.upcoming);
+        }
+        return dashboard.build();
+    }
 
-        // Get active and exceeded budgets
-        List<Budget> activeBudgets = userBudgets.stream()
-                .filter(b -> "ACTIVE".equals(b.getStatus().toString()))
-                .collect(Collectors.toList());
+    public DashboardDTO getDashboardSummary(Long userId) {
+        log.info("Fetching dashboard summary for user: {}", userId);
+        return getDashboardStats(userId);
+    }
 
-        List<Budget> exceededBudgets = userBudgets.stream()
-                .filter(b -> "EXCEEDED".equals(b.getStatus().toString()))
-                .collect(Collectors.toList());
+    private <T> CompletableFuture<T> load(Supplier<T> section) {
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> section.get()), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        // Get recent transactions (last 5)
-        List<TransactionDTO> recentTransactions = userTransactions.stream()
-                .sorted((a, b) -> b.getTransactionDate().compareTo(a.getTransactionDate()))
-                .limit(5)
-                .map(t -> modelMapper.map(t, TransactionDTO.class))
-                .collect(Collectors.toList());
+    /**
+     * Wait for a section until the shared deadline; null (and the section noted as
+     * unavailable) if it times out, fails or was rejected by the saturated pool.
+     */
+    private <T> T await(String section, CompletableFuture<T> future, long deadline, List<String> unavailable) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            log.warn("Dashboard section {} timed out", section);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("Dashboard section {} rejected: fan-out pool saturated", section);
+            } else {
+                log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(section);
+        return null;
+    }
 
-        // Get upcoming budgets
-        List<BudgetDTO> upcomingBudgets = userBudgets.stream()
-                .filter(b -> b.getEndDate().isAfter(LocalDate.now()))
-                .sorted((a, b) -> a.getEndDate().compareTo(b.getEndDate()))
-                .limit(5)
+    // Totals come from the monthly rollup rather than raw transactions
+    private Totals loadTotals(Long userId) {
+        Totals totals = new Totals();
+        for (MonthlyRollupRepository.TypeTotal total : monthlyRollupRepository.findTotalsByUserId(userId)) {
+            if (Transaction.TransactionType.INCOME.name().equals(total.getType())) {
+                totals.income = totals.income.add(total.getTotalAmount());
+            } else if (Transaction.TransactionType.EXPENSE.name().equals(total.getType())) {
+                totals.expense = totals.expense.add(total.getTotalAmount());
+            }
+            totals.transactionCount += total.getTxnCount();
+        }
+        return totals;
+    }
+
+    // Budget counts and totals grouped by status in one query, plus the next budgets to end
+    private BudgetFigures loadBudgetFigures(Long userId) {
+        BudgetFigures figures = new BudgetFigures();
+        for (BudgetRepository.StatusTotal total : budgetRepository.findStatusTotalsByUserId(userId)) {
+            figures.limit = figures.limit.add(total.getLimitAmount());
+            figures.spent = figures.spent.add(total.getSpentAmount());
+            figures.total += total.getBudgetCount();
+            if (total.getStatus() == Budget.BudgetStatus.ACTIVE) {
+                figures.active = total.getBudgetCount();
+            } else if (total.getStatus() == Budget.BudgetStatus.EXCEEDED) {
+                figures.exceeded = total.getBudgetCount();
+            }
+        }
+        figures.upcoming = budgetRepository
+                .findEndingAfter(userId, LocalDate.now(), PageRequest.of(0, DASHBOARD_LIST_SIZE)).stream()
                 .map(b -> modelMapper.map(b, BudgetDTO.class))
                 .collect(Collectors.toList());
+        return figures;
+    }
 
-        // Calculate percentages
-        Double incomePercentage = totalIncome.signum() > 0 ? 
-                (totalIncome.doubleValue() / (totalIncome.doubleValue() + totalExpense.doubleValue())) * 100 : 0;
-        Double expensePercentage = totalExpense.signum() > 0 ? 
-                (totalExpense.doubleValue() / (totalIncome.doubleValue() + totalExpense.doubleValue())) * 100 : 0;
-
-        return DashboardDTO.builder()
-                .totalIncome(totalIncome)
-                .totalExpense(totalExpense)
-                .balance(balance)
-                .budgetLimit(budgetLimit)
-                .budgetSpent(budgetSpent)
-                .totalTransactions(userTransactions.size())
-                .totalBudgets(userBudgets.size())
-                .activeBudgets(activeBudgets.size())
-                .exceededBudgets(exceededBudgets.size())
-                .recentTransactions(recentTransactions)
-                .upcomingBudgets(upcomingBudgets)
-                .incomePercentage(incomePercentage)
-                .expensePercentage(expensePercentage)
-                .build();
+    private static final class Totals {
+        private BigDecimal income = BigDecimal.ZERO;
+        private BigDecimal expense = BigDecimal.ZERO;
+        private long transactionCount;
     }
 
-    public DashboardDTO getDashboardSummary(Long userId) {
-        log.info("Fetching dashboard summary for user: {}", userId);
-        return getDashboardStats(userId);
+    private static final class BudgetFigures {
+        private BigDecimal limit = BigDecimal.ZERO;
+        private BigDecimal spent = BigDecimal.ZERO;
+        private long total;
+        private long active;
+        private long exceeded;
+        private List<BudgetDTO> upcoming;
     }
 }
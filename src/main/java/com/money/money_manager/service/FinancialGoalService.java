@@ -1,12 +1,17 @@
 package com.money.money_manager.service;
 
 import com.money.money_manager.entity.FinancialGoal;
+import com.money.money_manager.entity.SyncTombstone;
 import com.money.money_manager.entity.User;
 import com.money.money_manager.dto.FinancialGoalDTO;
+import com.money.money_manager.dto.GoalStatisticsDTO;
 import com.money.money_manager.repository.FinancialGoalRepository;
+import com.money.money_manager.repository.SyncTombstoneRepository;
 import com.money.money_manager.repository.UserRepository;
+import com.money.money_manager.event.UserDataChangedEvent;
 import com.money.money_manager.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
@@ -27,6 +32,12 @@ public class FinancialGoalService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Get all goals for a user
      */
@@ -82,6 +93,7 @@ public class FinancialGoalService {
                 .build();
         
         FinancialGoal savedGoal = financialGoalRepository.save(goal);
+        publishGoalsChanged(userId);
         return FinancialGoalDTO.fromEntity(savedGoal);
     }
 
@@ -101,6 +113,7 @@ public class FinancialGoalService {
         goal.setUpdatedAt(LocalDate.now());
         
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        publishGoalsChanged(userId);
         return FinancialGoalDTO.fromEntity(updatedGoal);
     }
 
@@ -111,6 +124,8 @@ public class FinancialGoalService {
         FinancialGoal goal = financialGoalRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
         financialGoalRepository.delete(goal);
+        syncTombstoneRepository.save(SyncTombstone.of(userId, SyncTombstone.EntityType.GOAL, id));
+        publishGoalsChanged(userId);
     }
 
     /**
@@ -135,6 +150,9 @@ public class FinancialGoalService {
             // Goal's status is updated in addAmount method if target is met
             financialGoalRepository.save(goal);
         }
+        if (!incompleteGoals.isEmpty()) {
+            publishGoalsChanged(userId);
+        }
     }
 
     /**
@@ -154,6 +172,7 @@ public class FinancialGoalService {
         notificationService.notifyGoalCompleted(user, goal.getGoalName());
         
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        publishGoalsChanged(userId);
         return FinancialGoalDTO.fromEntity(updatedGoal);
     }
 
@@ -168,6 +187,7 @@ public class FinancialGoalService {
         goal.setUpdatedAt(LocalDate.now());
         
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        publishGoalsChanged(userId);
         return FinancialGoalDTO.fromEntity(updatedGoal);
     }
 
@@ -207,19 +227,7 @@ public class FinancialGoalService {
                 .build();
     }
 
-    /**
-     * DTO for goal statistics
-     */
-    @lombok.Data
-    @lombok.NoArgsConstructor
-    @lombok.AllArgsConstructor
-    @lombok.Builder
-    public static class GoalStatisticsDTO {
-        private long totalGoals;
-        private long completedGoals;
-        private long activeGoals;
-        private BigDecimal totalTargetAmount;
-        private BigDecimal totalCurrentAmount;
-        private double overallProgress;
+    private void publishGoalsChanged(Long userId) {
+        eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.GOALS));
     }
 }
@@ -0,0 +1,65 @@
+package com.money.money_manager.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Seeds the id_generators rows behind the table-generated ids of transactions,
+ * notifications and budgets.
+ *
+ * Flyway is disabled in the deployed configuration, so the seeds in the V5, V14 and
+ * V15 migrations never run there; without a seeded row Hibernate starts the counter
+ * near 1 and new rows collide with existing ids. Each row is raised to one
+ * allocation block past the table's largest id and never lowered, so this is safe to
+ * run on every start. It runs once all beans exist, before the web server and the
+ * scheduled jobs start, so no insert can draw an id first.
+ */
+@Component
+@Slf4j
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    // The sequence_name of each @TableGenerator is the name of the table it numbers
+    private static final List<String> SEQUENCES = List.of("transactions", "notifications", "budgets");
+    // Matches allocationSize on the entities' @TableGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdGeneratorSeeder(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("CREATE TABLE IF NOT EXISTS id_generators (" +
+                    "sequence_name VARCHAR(64) PRIMARY KEY, next_val BIGINT NOT NULL)").executeUpdate();
+            for (String sequence : SEQUENCES) {
+                seed(sequence);
+            }
+        });
+        log.info("Seeded id generators for {}", SEQUENCES);
+    }
+
+    // The pooled optimizer hands out the block ending at next_val first, so seed one
+    // full block past the current maximum id (as the migrations do)
+    private void seed(String table) {
+        entityManager.createNativeQuery("INSERT INTO id_generators (sequence_name, next_val) " +
+                        "SELECT * FROM (SELECT :sequence AS sequence_name, COALESCE(MAX(id), 0) + :block AS next_val " +
+                        "FROM " + table + ") AS seed " +
+                        "ON DUPLICATE KEY UPDATE next_val = GREATEST(id_generators.next_val, seed.next_val)")
+                .setParameter("sequence", table)
+                .setParameter("block", ALLOCATION_SIZE + 1)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,188 @@
+package com.money.money_manager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.money_manager.entity.IdempotencyKey;
+import com.money.money_manager.exception.IdempotencyConflictException;
+import com.money.money_manager.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Honours the Idempotency-Key header on write endpoints.
+ *
+ * Completed responses are served from a bounded in-memory cache, falling back to
+ * the idempotency_keys table, so a retried request is answered without running
+ * the write again. A key is reserved in its own transaction before the write so
+ * concurrent retries see it, and completed inside the write's transaction.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final Duration KEY_TTL = Duration.ofHours(24);
+
+    // A reservation older than this belongs to a request that died mid-flight
+    private static final Duration IN_PROGRESS_TIMEOUT = Duration.ofMinutes(15);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final BoundedCache<String, StoredResponse> completed = new BoundedCache<>(CACHE_SIZE, KEY_TTL);
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Run action once per (user, key). A repeat with the same request gets the stored
+     * response; a repeat with a different request, or while the first is still running,
+     * is rejected. Without a key the action simply runs.
+     */
+    @Transactional
+    public <T> T execute(Long userId, String key, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > IdempotencyKey.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most "
+                    + IdempotencyKey.MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(operation, request);
+        String cacheKey = userId + ":" + key;
+
+        StoredResponse cached = completed.get(cacheKey);
+        if (cached != null) {
+            log.info("Replaying cached response for idempotency key of user: {}", userId);
+            return replay(cached, requestHash, responseType);
+        }
+
+        IdempotencyKey reservation;
+        try {
+            reservation = requiresNew.execute(status -> idempotencyKeyRepository.saveAndFlush(
+                    IdempotencyKey.builder()
+                            .userId(userId)
+                            .idempotencyKey(key)
+                            .requestHash(requestHash)
+                            .build()));
+        } catch (DataIntegrityViolationException e) {
+            StoredResponse stored = loadCompleted(userId, key);
+            completed.put(cacheKey, stored);
+            log.info("Replaying stored response for idempotency key of user: {}", userId);
+            return replay(stored, requestHash, responseType);
+        }
+
+        Long reservationId = reservation.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // The write rolled back, so free the key for a retry
+                if (status != STATUS_COMMITTED) {
+                    requiresNew.executeWithoutResult(s -> idempotencyKeyRepository.deleteReservation(reservationId));
+                }
+            }
+        });
+
+        T result = action.get();
+        String body = toJson(result);
+        idempotencyKeyRepository.markCompleted(reservationId, body, LocalDateTime.now());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                completed.put(cacheKey, new StoredResponse(requestHash, body));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Drop completed keys past their retention and reservations abandoned by crashed requests.
+     */
+    @Scheduled(fixedDelay = 300_000)
+    @Transactional
+    public void purgeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = idempotencyKeyRepository.deleteExpired(now.minus(KEY_TTL), now.minus(IN_PROGRESS_TIMEOUT));
+        if (purged > 0) {
+            log.info("Purged {} idempotency keys", purged);
+        }
+    }
+
+    private StoredResponse loadCompleted(Long userId, String key) {
+        IdempotencyKey existing = requiresNew.execute(status ->
+                idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key).orElse(null));
+        if (existing == null || existing.getStatus() != IdempotencyKey.Status.COMPLETED) {
+            throw new IdempotencyConflictException(
+                    "A request with this Idempotency-Key is already in progress", HttpStatus.CONFLICT);
+        }
+        return new StoredResponse(existing.getRequestHash(), existing.getResponseBody());
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        try {
+            return objectMapper.readValue(stored.body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String requestHash;
+        private final String body;
+
+        private StoredResponse(String requestHash, String body) {
+            this.requestHash = requestHash;
+            this.body = body;
+        }
+    }
+}
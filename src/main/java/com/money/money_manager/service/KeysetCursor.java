@@ -0,0 +1,115 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.CursorPageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes and decodes opaque keyset pagination cursors, and assembles keyset pages.
+ * A cursor is the sort key of the last row of a page, joined with '|' and Base64url encoded.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Decode a cursor and parse its parts; any parse failure is reported as an invalid cursor.
+     */
+    static <T> T decode(String cursor, int expectedParts, Function<String[], T> parser) {
+        String[] parts = decode(cursor, expectedParts);
+        try {
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Decode a (sort value, id) cursor as written by {@link #page}.
+     */
+    static <V> Key<V> decodeKey(String cursor, Function<String, V> valueParser) {
+        return decode(cursor, 2, parts -> new Key<>(valueParser.apply(parts[0]), Long.valueOf(parts[1])));
+    }
+
+    /**
+     * Requested page size, defaulted and clamped to [1, max].
+     */
+    static int pageSize(Integer limit, int defaultSize, int maxSize) {
+        return limit == null ? defaultSize : Math.max(1, Math.min(limit, maxSize));
+    }
+
+    /**
+     * One row more than the page size, to learn whether another page exists without counting.
+     */
+    static Pageable window(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Trim rows fetched with {@link #window} to a page, with a cursor after its last row.
+     */
+    static <T> CursorPageDTO<T> page(List<T> rows, int pageSize,
+                                     Function<T, Object> sortValue, Function<T, Long> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            T last = page.get(page.size() - 1);
+            nextCursor = encode(sortValue.apply(last), id.apply(last));
+        }
+
+        return CursorPageDTO.<T>builder()
+                .content(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .size(page.size())
+                .build();
+    }
+
+    /**
+     * Sort value and id of the last row of the previous page.
+     */
+    static final class Key<V> {
+        final V value;
+        final Long id;
+
+        private Key(V value, Long id) {
+            this.value = value;
+            this.id = id;
+        }
+    }
+}
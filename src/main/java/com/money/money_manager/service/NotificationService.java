@@ -3,8 +3,10 @@ package com.money.money_manager.service;
 import com.money.money_manager.dto.NotificationDTO;
 import com.money.money_manager.entity.Notification;
 import com.money.money_manager.entity.User;
+import com.money.money_manager.event.UserDataChangedEvent;
 import com.money.money_manager.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,9 +20,13 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public void createNotification(User user, String message, Notification.NotificationType type) {
         Notification notification = new Notification(user, message, type);
         notificationRepository.save(notification);
+        publishChanged(user);
     }
 
     public List<NotificationDTO> getAllNotifications(User user) {
@@ -51,12 +57,18 @@ public class NotificationService {
         
         notification.setIsRead(true);
         notificationRepository.save(notification);
+        publishChanged(user);
     }
 
     public void markAllAsRead(User user) {
         List<Notification> unreadNotifications = notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
         unreadNotifications.forEach(notification -> notification.setIsRead(true));
         notificationRepository.saveAll(unreadNotifications);
+        publishChanged(user);
+    }
+
+    private void publishChanged(User user) {
+        eventPublisher.publishEvent(UserDataChangedEvent.of(user.getId(), UserDataChangedEvent.Source.NOTIFICATIONS));
     }
 
     // Helper methods for specific notification types
@@ -0,0 +1,85 @@
+package com.money.money_manager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.money_manager.dto.OutboxStatsDTO;
+import com.money.money_manager.entity.OutboxEvent;
+import com.money.money_manager.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Writes side-effect events to the transactional outbox and reports on its backlog.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class OutboxService {
+
+    private static final Duration DONE_RETENTION = Duration.ofDays(7);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxWorker outboxWorker;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Record an event in the caller's transaction; it becomes visible to the
+     * worker only if the write commits.
+     */
+    public void enqueue(Long userId, OutboxEvent.EventType eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .userId(userId)
+                .eventType(eventType)
+                .payload(json)
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public OutboxStatsDTO getStats() {
+        LocalDateTime oldest = outboxEventRepository.findOldestUnprocessedCreatedAt();
+        long passes = outboxWorker.getBudgetPasses();
+        return OutboxStatsDTO.builder()
+                .pending(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING))
+                .processing(outboxEventRepository.countByStatus(OutboxEvent.Status.PROCESSING))
+                .failed(outboxEventRepository.countByStatus(OutboxEvent.Status.FAILED))
+                .oldestPendingSeconds(oldest != null ? Duration.between(oldest, LocalDateTime.now()).getSeconds() : 0)
+                .processedTotal(outboxWorker.getProcessedTotal())
+                .retriedTotal(outboxWorker.getRetriedTotal())
+                .failedTotal(outboxWorker.getFailedTotal())
+                .lastLagMillis(outboxWorker.getLastLagMillis())
+                .activeWorkers(outboxWorker.getActiveWorkers())
+                .budgetPasses(passes)
+                .budgetUpdates(outboxWorker.getBudgetUpdates())
+                .coalescedEvents(outboxWorker.getCoalescedEvents())
+                .coalescingRatio(passes > 0 ? (double) outboxWorker.getProcessedTotal() / passes : 0)
+                .build();
+    }
+
+    /**
+     * Put events that ran out of attempts back in the queue.
+     */
+    public int retryFailed() {
+        int count = outboxEventRepository.retryFailed(LocalDateTime.now());
+        log.info("Re-queued {} failed outbox events", count);
+        return count;
+    }
+
+    @Scheduled(cron = "0 15 3 * * ?") // Daily at 03:15 server time
+    public void purgeProcessed() {
+        int purged = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(DONE_RETENTION));
+        log.info("Purged {} processed outbox events", purged);
+    }
+}
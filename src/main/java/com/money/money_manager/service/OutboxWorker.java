@@ -0,0 +1,285 @@
+package com.money.money_manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.money_manager.dto.TransactionChangeDTO;
+import com.money.money_manager.dto.TransactionSnapshot;
+import com.money.money_manager.entity.OutboxEvent;
+import com.money.money_manager.entity.Transaction;
+import com.money.money_manager.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox on a small worker pool.
+ *
+ * Each poll claims a batch of ready events, groups them by user and hands each
+ * user's events to one worker, so side effects for a user apply in write order
+ * while different users proceed in parallel. All of a user's claimed events are
+ * coalesced into a single budget pass, so a burst of writes that piled up during
+ * the poll interval costs one update per affected budget rather than one per write.
+ * The pass commits together with the events' DONE markers. A failure backs off
+ * exponentially and holds back that user's later events until it succeeds or is
+ * given up on.
+ */
+@Component
+@Slf4j
+public class OutboxWorker {
+
+    private static final int WORKER_THREADS = 4;
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final BudgetService budgetService;
+    private final FinancialGoalService financialGoalService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong processedTotal = new AtomicLong();
+    private final AtomicLong retriedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong budgetPasses = new AtomicLong();
+    private final AtomicLong budgetUpdates = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    public OutboxWorker(OutboxEventRepository outboxEventRepository,
+                        BudgetService budgetService,
+                        FinancialGoalService financialGoalService,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.budgetService = budgetService;
+        this.financialGoalService = financialGoalService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // The queue holds one batch worth of user groups; the poller waits for each batch
+        this.executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(BATCH_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Scheduled(fixedDelay = 500)
+    public void drain() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<OutboxEvent>> byUser = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+        List<Future<?>> futures = new ArrayList<>(byUser.size());
+        for (List<OutboxEvent> userEvents : byUser.values()) {
+            futures.add(executor.submit(() -> processInOrder(userEvents)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Outbox worker task failed", e.getCause());
+            }
+        }
+        log.debug("Processed outbox batch of {} events for {} users", batch.size(), byUser.size());
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void releaseStaleClaims() {
+        Integer released = transactionTemplate.execute(status ->
+                outboxEventRepository.releaseStale(LocalDateTime.now().minus(CLAIM_TIMEOUT)));
+        if (released != null && released > 0) {
+            log.warn("Released {} stale outbox claims", released);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public long getProcessedTotal() {
+        return processedTotal.get();
+    }
+
+    public long getRetriedTotal() {
+        return retriedTotal.get();
+    }
+
+    public long getFailedTotal() {
+        return failedTotal.get();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getBudgetPasses() {
+        return budgetPasses.get();
+    }
+
+    public long getBudgetUpdates() {
+        return budgetUpdates.get();
+    }
+
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxEventRepository.findReadyIds(now, BATCH_SIZE);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxEventRepository.claim(ids, now);
+        return outboxEventRepository.findByIdInOrderById(ids);
+    }
+
+    private void processInOrder(List<OutboxEvent> events) {
+        // Collapse everything claimed for this user into one budget pass; if that
+        // fails, fall back to one event at a time to isolate the bad one
+        if (events.size() > 1) {
+            try {
+                Integer updates = transactionTemplate.execute(status -> {
+                    int applied = apply(events.get(0).getUserId(), events);
+                    outboxEventRepository.markAllDone(ids(events), LocalDateTime.now());
+                    return applied;
+                });
+                recordSuccess(events, updates);
+                coalescedEvents.addAndGet(events.size());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Coalesced outbox batch for user {} failed, processing events one by one: {}",
+                        events.get(0).getUserId(), e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                Integer updates = transactionTemplate.execute(status -> {
+                    int applied = apply(event.getUserId(), List.of(event));
+                    outboxEventRepository.markDone(event.getId(), LocalDateTime.now());
+                    return applied;
+                });
+                recordSuccess(List.of(event), updates);
+            } catch (RuntimeException e) {
+                recordFailure(event, e);
+                // Later events for this user wait until this one succeeds
+                List<Long> rest = ids(events.subList(i + 1, events.size()));
+                if (!rest.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> outboxEventRepository.release(rest));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run the side effects of a user's events: goal progress once for all income
+     * created, and one delta pass over the user's budgets.
+     *
+     * @return the number of budgets updated
+     */
+    private int apply(Long userId, List<OutboxEvent> events) {
+        List<TransactionChangeDTO> changes = new ArrayList<>(events.size());
+        BigDecimal income = BigDecimal.ZERO;
+        for (OutboxEvent event : events) {
+            TransactionChangeDTO change;
+            try {
+                change = objectMapper.readValue(event.getPayload(), TransactionChangeDTO.class);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+            }
+            change.setChangedAt(event.getCreatedAt());
+            changes.add(change);
+
+            if (event.getEventType() == OutboxEvent.EventType.TRANSACTIONS_CREATED) {
+                income = income.add(change.getAfter().stream()
+                        .filter(t -> t.getType() == Transaction.TransactionType.INCOME)
+                        .map(TransactionSnapshot::getAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add));
+            }
+        }
+
+        financialGoalService.updateGoalProgress(userId, Transaction.TransactionType.INCOME.toString(), income);
+        return budgetService.onTransactionsChanged(userId, changes);
+    }
+
+    private void recordSuccess(List<OutboxEvent> events, Integer updates) {
+        processedTotal.addAndGet(events.size());
+        budgetPasses.incrementAndGet();
+        budgetUpdates.addAndGet(updates != null ? updates : 0);
+        OutboxEvent last = events.get(events.size() - 1);
+        lastLagMillis.set(Duration.between(last.getCreatedAt(), LocalDateTime.now()).toMillis());
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        boolean giveUp = attempts >= MAX_ATTEMPTS;
+        long backoffMillis = Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << Math.min(attempts - 1, 20));
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = error;
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markAttemptFailed(
+                event.getId(),
+                giveUp ? OutboxEvent.Status.FAILED : OutboxEvent.Status.PENDING,
+                attempts,
+                LocalDateTime.now().plus(Duration.ofMillis(backoffMillis)),
+                lastError));
+
+        if (giveUp) {
+            failedTotal.incrementAndGet();
+            log.error("Outbox event {} ({}) failed after {} attempts", event.getId(), event.getEventType(), attempts, e);
+        } else {
+            retriedTotal.incrementAndGet();
+            log.warn("Outbox event {} ({}) failed, retrying in {} ms: {}",
+                    event.getId(), event.getEventType(), backoffMillis, e.getMessage());
+        }
+    }
+}
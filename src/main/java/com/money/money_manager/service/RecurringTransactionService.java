@@ -1,6 +1,8 @@
 package com.money.money_manager.service;
 
 import com.money.money_manager.dto.RecurringTransactionDTO;
+import com.money.money_manager.dto.TransactionChangeDTO;
+import com.money.money_manager.entity.OutboxEvent;
 import com.money.money_manager.entity.RecurringTransaction;
 import com.money.money_manager.entity.Category;
 import com.money.money_manager.entity.User;
@@ -33,6 +35,8 @@ public class RecurringTransactionService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final OutboxService outboxService;
     private final ModelMapper modelMapper;
 
     public RecurringTransactionDTO createRecurringTransaction(Long userId, RecurringTransactionDTO dto) {
@@ -182,6 +186,9 @@ public class RecurringTransactionService {
                 .build();
 
         transactionRepository.save(transaction);
+        rollupService.recordCreated(transaction);
+        outboxService.enqueue(recurring.getUser().getId(), OutboxEvent.EventType.TRANSACTIONS_CREATED,
+                TransactionChangeDTO.created(List.of(transaction)));
         log.info("Generated transaction for recurring ID: {}", recurring.getId());
 
         // Update recurring transaction
@@ -0,0 +1,50 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.repository.MonthlyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds monthly_rollups from transactions at startup.
+ *
+ * Flyway is disabled in the deployed configuration, so the V8 backfill never runs
+ * there and users' existing transactions would be missing from every total read
+ * from the rollup. The rebuild overwrites each row with the grouped sum of its
+ * transactions and drops rows nothing contributes to, so it is safe to repeat and
+ * also repairs any drift. It runs once all beans exist, before the web server and
+ * the scheduled jobs start, so no transaction write races with it.
+ */
+@Component
+@Slf4j
+public class RollupBackfill implements SmartInitializingSingleton {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public RollupBackfill(MonthlyRollupRepository monthlyRollupRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${rollups.rebuild-on-startup:true}") boolean enabled) {
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            int upserted = monthlyRollupRepository.rebuildFromTransactions();
+            int orphaned = monthlyRollupRepository.deleteOrphaned();
+            log.info("Rebuilt monthly rollups: {} rows upserted, {} orphaned rows deleted in {} ms",
+                    upserted, orphaned, System.currentTimeMillis() - started);
+        });
+    }
+}
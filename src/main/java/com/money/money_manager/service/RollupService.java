@@ -0,0 +1,138 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.entity.Transaction;
+import com.money.money_manager.event.UserDataChangedEvent;
+import com.money.money_manager.repository.MonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps monthly_rollups in step with transaction writes.
+ * Callers invoke it inside their own transaction so the rollup and the rows never diverge.
+ * Every recorded write is announced as a UserDataChangedEvent.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class RollupService {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void recordCreated(Transaction transaction) {
+        apply(key(transaction.getUser().getId(), transaction.getCategory().getId(),
+                transaction.getType(), transaction.getTransactionDate()), transaction.getAmount(), 1);
+        publishChanged(transaction.getUser().getId());
+    }
+
+    /**
+     * Record a batch of new transactions with one upsert per distinct month/category/type.
+     */
+    public void recordCreated(List<Transaction> transactions) {
+        Map<Key, Delta> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            Key key = key(transaction.getUser().getId(), transaction.getCategory().getId(),
+                    transaction.getType(), transaction.getTransactionDate());
+            deltas.computeIfAbsent(key, k -> new Delta()).add(transaction.getAmount());
+        }
+        deltas.forEach((key, delta) -> apply(key, delta.amount, delta.count));
+        deltas.keySet().stream().map(key -> key.userId).distinct().forEach(this::publishChanged);
+        log.debug("Applied {} rollup deltas for {} transactions", deltas.size(), transactions.size());
+    }
+
+    /**
+     * Move a transaction's contribution after its amount or date changed.
+     */
+    public void recordUpdated(Transaction transaction, BigDecimal oldAmount, LocalDate oldDate) {
+        if (oldAmount.compareTo(transaction.getAmount()) == 0
+                && oldDate.equals(transaction.getTransactionDate())) {
+            // Totals are unchanged, but the dashboard also lists recent transactions
+            publishChanged(transaction.getUser().getId());
+            return;
+        }
+        Long userId = transaction.getUser().getId();
+        Long categoryId = transaction.getCategory().getId();
+        apply(key(userId, categoryId, transaction.getType(), oldDate), oldAmount.negate(), -1);
+        apply(key(userId, categoryId, transaction.getType(), transaction.getTransactionDate()),
+                transaction.getAmount(), 1);
+        publishChanged(userId);
+    }
+
+    public void recordDeleted(Transaction transaction) {
+        apply(key(transaction.getUser().getId(), transaction.getCategory().getId(),
+                transaction.getType(), transaction.getTransactionDate()), transaction.getAmount().negate(), -1);
+        publishChanged(transaction.getUser().getId());
+    }
+
+    /**
+     * Drop a deleted category's contribution; its transactions are deleted with it.
+     */
+    public void recordCategoryDeleted(Long userId, Long categoryId) {
+        int rows = monthlyRollupRepository.deleteByUserIdAndCategoryId(userId, categoryId);
+        publishChanged(userId);
+        log.debug("Dropped {} rollup rows of deleted category {}", rows, categoryId);
+    }
+
+    private void publishChanged(Long userId) {
+        eventPublisher.publishEvent(UserDataChangedEvent.of(userId, UserDataChangedEvent.Source.TRANSACTIONS));
+    }
+
+    private void apply(Key key, BigDecimal amount, long count) {
+        monthlyRollupRepository.addDelta(key.userId, key.monthStart, key.categoryId,
+                key.type.name(), amount, count);
+    }
+
+    private static Key key(Long userId, Long categoryId, Transaction.TransactionType type, LocalDate date) {
+        return new Key(userId, date.withDayOfMonth(1), categoryId, type);
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final LocalDate monthStart;
+        private final Long categoryId;
+        private final Transaction.TransactionType type;
+
+        private Key(Long userId, LocalDate monthStart, Long categoryId, Transaction.TransactionType type) {
+            this.userId = userId;
+            this.monthStart = monthStart;
+            this.categoryId = categoryId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return userId.equals(other.userId) && monthStart.equals(other.monthStart)
+                    && categoryId.equals(other.categoryId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, monthStart, categoryId, type);
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        private void add(BigDecimal value) {
+            amount = amount.add(value);
+            count++;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.CategoryDTO;
+import com.money.money_manager.dto.FinancialGoalDTO;
+import com.money.money_manager.dto.SyncResponseDTO;
+import com.money.money_manager.dto.SyncTombstoneDTO;
+import com.money.money_manager.dto.TransactionDTO;
+import com.money.money_manager.entity.Budget;
+import com.money.money_manager.entity.Category;
+import com.money.money_manager.entity.FinancialGoal;
+import com.money.money_manager.entity.SyncTombstone;
+import com.money.money_manager.repository.BudgetRepository;
+import com.money.money_manager.repository.CategoryRepository;
+import com.money.money_manager.repository.FinancialGoalRepository;
+import com.money.money_manager.repository.SyncTombstoneRepository;
+import com.money.money_manager.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for mobile clients.
+ *
+ * A sync session pages through changed rows one entity type at a time, in a fixed
+ * order, each with a keyset on (updatedAt, id). Every query is bounded above by the
+ * session's snapshot time, so rows touched while a client is paging show up in the
+ * next sync instead of shifting the current one.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class SyncService {
+
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Tombstones are kept this long; older watermarks get a full resync
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(90);
+
+    // The returned watermark trails the snapshot a little, so rows whose
+    // transaction committed just after the snapshot are not skipped
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetRepository budgetRepository;
+    private final FinancialGoalRepository financialGoalRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final BudgetService budgetService;
+    private final ModelMapper modelMapper;
+
+    private enum Phase {
+        TRANSACTIONS, CATEGORIES, BUDGETS, GOALS, DELETED
+    }
+
+    public SyncResponseDTO sync(Long userId, LocalDateTime since, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        Position position;
+        boolean fullResync = false;
+        if (cursor != null && !cursor.isBlank()) {
+            position = Position.decode(cursor);
+        } else {
+            LocalDateTime now = LocalDateTime.now();
+            if (since != null && since.isBefore(now.minus(TOMBSTONE_RETENTION))) {
+                since = null;
+                fullResync = true;
+            }
+            position = new Position(since != null ? since : EPOCH, now, Phase.TRANSACTIONS, null, null);
+        }
+        log.info("Sync for user {} since {} (phase {}, size {})", userId, position.since, position.phase, pageSize);
+
+        SyncResponseDTO response = SyncResponseDTO.builder()
+                .watermark(position.until.minus(WATERMARK_OVERLAP))
+                .fullResync(fullResync)
+                .build();
+
+        int remaining = pageSize;
+        Phase[] phases = Phase.values();
+        for (int i = position.phase.ordinal(); i < phases.length; i++) {
+            Phase phase = phases[i];
+            boolean resuming = phase == position.phase && position.lastKey != null;
+            String lastKey = resuming ? position.lastKey : null;
+            Long lastId = resuming ? position.lastId : null;
+
+            if (remaining == 0) {
+                return finishPage(response, position.next(phase, null, null));
+            }
+
+            Position stop = switch (phase) {
+                case TRANSACTIONS -> collect(
+                        transactionRepository.findChangedSince(userId, position.until,
+                                timestampOr(lastKey, position.since), idOr(lastId),
+                                KeysetCursor.window(remaining)),
+                        remaining, response.getTransactions(), Function.identity(),
+                        t -> t.getUpdatedAt().toString(), TransactionDTO::getId, position, phase);
+                case CATEGORIES -> collect(
+                        categoryRepository.findChangedSince(userId, position.until,
+                                timestampOr(lastKey, position.since), idOr(lastId),
+                                KeysetCursor.window(remaining)),
+                        remaining, response.getCategories(), c -> modelMapper.map(c, CategoryDTO.class),
+                        c -> c.getUpdatedAt().toString(), Category::getId, position, phase);
+                case BUDGETS -> collect(
+                        budgetRepository.findChangedSince(userId, position.until,
+                                timestampOr(lastKey, position.since), idOr(lastId),
+                                KeysetCursor.window(remaining)),
+                        remaining, response.getBudgets(), budgetService::mapToSummaryDTO,
+                        b -> b.getUpdatedAt().toString(), Budget::getId, position, phase);
+                // Goals only track the day they changed, so a goal changed on the
+                // watermark's day is sent again on the next sync
+                case GOALS -> collect(
+                        financialGoalRepository.findChangedSince(userId, position.until.toLocalDate(),
+                                lastKey != null ? LocalDate.parse(lastKey) : position.since.toLocalDate(),
+                                lastKey != null ? lastId : 0L,
+                                KeysetCursor.window(remaining)),
+                        remaining, response.getGoals(), FinancialGoalDTO::fromEntity,
+                        g -> g.getUpdatedAt().toString(), FinancialGoal::getId, position, phase);
+                case DELETED -> collect(
+                        syncTombstoneRepository.findChangedSince(userId, position.until,
+                                timestampOr(lastKey, position.since), idOr(lastId),
+                                KeysetCursor.window(remaining)),
+                        remaining, response.getDeleted(), this::toTombstoneDTO,
+                        s -> s.getDeletedAt().toString(), SyncTombstone::getId, position, phase);
+            };
+            if (stop != null) {
+                return finishPage(response, stop);
+            }
+            remaining = pageSize - itemCount(response);
+        }
+
+        return finishPage(response, null);
+    }
+
+    /**
+     * Drop tombstones older than the retention window.
+     */
+    @Scheduled(cron = "0 30 3 * * ?") // Daily at 03:30 server time
+    @Transactional
+    public void purgeTombstones() {
+        int purged = syncTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+        log.info("Purged {} sync tombstones", purged);
+    }
+
+    /**
+     * Move up to remaining rows into sink. Returns the position to resume from if the
+     * phase has more rows than fit, or null if the phase is exhausted.
+     */
+    private <E, D> Position collect(List<E> rows, int remaining, List<D> sink, Function<E, D> mapper,
+                                    Function<E, String> keyOf, Function<E, Long> idOf,
+                                    Position position, Phase phase) {
+        boolean more = rows.size() > remaining;
+        List<E> taken = more ? rows.subList(0, remaining) : rows;
+        sink.addAll(taken.stream().map(mapper).collect(Collectors.toList()));
+        if (!more) {
+            return null;
+        }
+        E last = taken.get(taken.size() - 1);
+        return position.next(phase, keyOf.apply(last), idOf.apply(last));
+    }
+
+    private SyncResponseDTO finishPage(SyncResponseDTO response, Position next) {
+        response.setHasMore(next != null);
+        response.setNextCursor(next != null ? next.encode() : null);
+        return response;
+    }
+
+    private int itemCount(SyncResponseDTO response) {
+        return response.getTransactions().size() + response.getCategories().size()
+                + response.getBudgets().size() + response.getGoals().size() + response.getDeleted().size();
+    }
+
+    private SyncTombstoneDTO toTombstoneDTO(SyncTombstone tombstone) {
+        return new SyncTombstoneDTO(tombstone.getEntityType().name(), tombstone.getEntityId(),
+                tombstone.getDeletedAt());
+    }
+
+    // A phase starts just past the watermark: every row with updatedAt > since
+    private static LocalDateTime timestampOr(String lastKey, LocalDateTime since) {
+        return lastKey != null ? LocalDateTime.parse(lastKey) : since;
+    }
+
+    private static Long idOr(Long lastId) {
+        return lastId != null ? lastId : Long.MAX_VALUE;
+    }
+
+    /**
+     * Where a sync session stands: its window (since, until], the current phase,
+     * and the keyset of the last row sent in that phase.
+     */
+    private static final class Position {
+        private final LocalDateTime since;
+        private final LocalDateTime until;
+        private final Phase phase;
+        private final String lastKey;
+        private final Long lastId;
+
+        private Position(LocalDateTime since, LocalDateTime until, Phase phase, String lastKey, Long lastId) {
+            this.since = since;
+            this.until = until;
+            this.phase = phase;
+            this.lastKey = lastKey;
+            this.lastId = lastId;
+        }
+
+        private Position next(Phase phase, String lastKey, Long lastId) {
+            return new Position(since, until, phase, lastKey, lastId);
+        }
+
+        private String encode() {
+            return KeysetCursor.encode(since, until, phase.name(),
+                    lastKey != null ? lastKey : "", lastId != null ? lastId : "");
+        }
+
+        private static Position decode(String cursor) {
+            return KeysetCursor.decode(cursor, 5, parts -> {
+                boolean hasKey = !parts[3].isEmpty();
+                return new Position(LocalDateTime.parse(parts[0]), LocalDateTime.parse(parts[1]),
+                        Phase.valueOf(parts[2]),
+                        hasKey ? parts[3] : null,
+                        hasKey ? Long.valueOf(parts[4]) : null);
+            });
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.TagUsageDTO;
+import com.money.money_manager.entity.Tag;
+import com.money.money_manager.entity.Transaction;
+import com.money.money_manager.entity.User;
+import com.money.money_manager.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the normalized tags/transaction_tags tables in sync with the
+ * comma-separated tags string that clients send on transactions.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class TagService {
+
+    private final TagRepository tagRepository;
+
+    /**
+     * Link a single transaction to the tags named in its tags string.
+     */
+    public void applyTags(Transaction transaction) {
+        applyTags(transaction.getUser(), List.of(transaction));
+    }
+
+    /**
+     * Link a batch of transactions (all owned by user) to their tags,
+     * resolving and creating tags with one lookup for the whole batch.
+     */
+    public void applyTags(User user, List<Transaction> transactions) {
+        Set<String> allNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Transaction transaction : transactions) {
+            allNames.addAll(parseTags(transaction.getTags()));
+        }
+
+        Map<String, Tag> tagsByName = resolveTags(user, allNames);
+        for (Transaction transaction : transactions) {
+            Set<Tag> tagSet = new HashSet<>();
+            for (String name : parseTags(transaction.getTags())) {
+                tagSet.add(tagsByName.get(name));
+            }
+            transaction.setTagSet(tagSet);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getUserTags(Long userId) {
+        return tagRepository.findTagUsageByUserId(userId).stream()
+                .map(TagRepository.TagUsage::getName)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TagUsageDTO> getTagUsage(Long userId) {
+        return tagRepository.findTagUsageByUserId(userId).stream()
+                .map(usage -> new TagUsageDTO(usage.getName(), usage.getUsageCount()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Split a comma-separated tags string into trimmed, de-duplicated names.
+     * Matching is case-insensitive, like the tags table's collation; the first spelling wins.
+     */
+    static List<String> parseTags(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return List.of();
+        }
+        Set<String> seen = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> names = new LinkedHashSet<>();
+        for (String raw : tags.split(",")) {
+            String name = raw.trim();
+            if (name.length() > Tag.MAX_NAME_LENGTH) {
+                name = name.substring(0, Tag.MAX_NAME_LENGTH).trim();
+            }
+            if (!name.isEmpty() && seen.add(name)) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    private Map<String, Tag> resolveTags(User user, Set<String> names) {
+        Map<String, Tag> tagsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (names.isEmpty()) {
+            return tagsByName;
+        }
+
+        for (Tag tag : tagRepository.findByUserIdAndNameIn(user.getId(), names)) {
+            tagsByName.put(tag.getName(), tag);
+        }
+
+        List<Tag> created = names.stream()
+                .filter(name -> !tagsByName.containsKey(name))
+                .map(name -> Tag.builder().user(user).name(name).build())
+                .collect(Collectors.toList());
+        if (!created.isEmpty()) {
+            log.debug("Creating {} new tags for user: {}", created.size(), user.getId());
+            tagRepository.saveAll(created).forEach(tag -> tagsByName.put(tag.getName(), tag));
+        }
+        return tagsByName;
+    }
+}
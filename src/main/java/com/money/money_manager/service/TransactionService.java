@@ -1,19 +1,29 @@
 package com.money.money_manager.service;
 
+import com.money.money_manager.dto.BulkTransactionResultDTO;
+import com.money.money_manager.dto.CursorPageDTO;
+import com.money.money_manager.dto.TagUsageDTO;
+import com.money.money_manager.dto.TransactionChangeDTO;
 import com.money.money_manager.dto.TransactionDTO;
 import com.money.money_manager.dto.TransactionSearchDTO;
+import com.money.money_manager.dto.TransactionSnapshot;
 import com.money.money_manager.entity.Category;
+import com.money.money_manager.entity.OutboxEvent;
+import com.money.money_manager.entity.SyncTombstone;
 import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.User;
 import com.money.money_manager.exception.ResourceNotFoundException;
 import com.money.money_manager.repository.CategoryRepository;
+import com.money.money_manager.repository.SyncTombstoneRepository;
 import com.money.money_manager.repository.TransactionRepository;
+import com.money.money_manager.repository.TransactionSearchHit;
 import com.money.money_manager.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,9 +31,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,16 +50,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Matches hibernate.jdbc.batch_size and the id generator allocation size
+    private static final int BULK_CHUNK_SIZE = 50;
+    // InnoDB defaults: innodb_ft_min_token_size and INFORMATION_SCHEMA.INNODB_FT_DEFAULT_STOPWORD
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
+    private static final Set<String> FULLTEXT_STOPWORDS = Set.of(
+            "a", "about", "an", "are", "as", "at", "be", "by", "com", "de", "en", "for", "from",
+            "how", "i", "in", "is", "it", "la", "of", "on", "or", "that", "the", "this", "to",
+            "was", "what", "when", "where", "who", "will", "with", "und", "www");
+
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
-    
-    @Autowired
-    private FinancialGoalService financialGoalService;
-    
-    @Autowired
-    private BudgetService budgetService;
+    private final TagService tagService;
+    private final RollupService rollupService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final OutboxService outboxService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public TransactionDTO createTransaction(Long userId, TransactionDTO transactionDTO) {
         log.info("Creating transaction for user: {}", userId);
@@ -52,57 +81,132 @@ public class TransactionService {
         Category category = categoryRepository.findByIdAndUserId(transactionDTO.getCategoryId(), userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
-        Transaction transaction = modelMapper.map(transactionDTO, Transaction.class);
-        transaction.setUser(user);
-        transaction.setCategory(category);
-        transaction.setCreatedAt(java.time.LocalDateTime.now());
-        transaction.setUpdatedAt(java.time.LocalDateTime.now());
+        Transaction transaction = toEntity(transactionDTO, user, category, LocalDateTime.now());
+        tagService.applyTags(transaction);
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        rollupService.recordCreated(savedTransaction);
+        // Goal progress and budgets are updated by OutboxWorker after commit
+        outboxService.enqueue(userId, OutboxEvent.EventType.TRANSACTIONS_CREATED,
+                TransactionChangeDTO.created(List.of(savedTransaction)));
         log.info("Transaction created successfully with ID: {}", savedTransaction.getId());
         
-        // Update financial goals progress
-        try {
-            financialGoalService.updateGoalProgress(userId, savedTransaction.getType().toString(), savedTransaction.getAmount());
-        } catch (Exception e) {
-            log.warn("Failed to update goal progress: {}", e.getMessage());
+        return TransactionDTO.fromEntity(savedTransaction);
+    }
+
+    /**
+     * Create many transactions in one call.
+     * Categories are validated once per distinct id, rows are written in JDBC batches,
+     * and goal/budget side effects are queued as one outbox event for the whole batch.
+     */
+    public BulkTransactionResultDTO createTransactionsBulk(Long userId, List<TransactionDTO> transactionDTOs) {
+        log.info("Creating {} transactions in bulk for user: {}", transactionDTOs.size(), userId);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Set<Long> categoryIds = transactionDTOs.stream()
+                .map(TransactionDTO::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findByUserIdAndIdIn(userId, categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        if (categories.size() != categoryIds.size()) {
+            Set<Long> missing = new HashSet<>(categoryIds);
+            missing.removeAll(categories.keySet());
+            throw new ResourceNotFoundException("Category not found: " + missing);
         }
-        
-        // Update affected budgets
-        try {
-            budgetService.onTransactionCreated(savedTransaction);
-        } catch (Exception e) {
-            log.warn("Failed to update budgets: {}", e.getMessage());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = transactionDTOs.stream()
+                .map(dto -> toEntity(dto, user, categories.get(dto.getCategoryId()), now))
+                .collect(Collectors.toList());
+        tagService.applyTags(user, transactions);
+
+        List<Long> ids = new ArrayList<>(transactions.size());
+        List<Transaction> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+
+        for (Transaction transaction : transactions) {
+            chunk.add(transaction);
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                flushChunk(chunk, ids);
+            }
         }
-        
-        return mapToDTO(savedTransaction);
+        flushChunk(chunk, ids);
+        rollupService.recordCreated(transactions);
+        outboxService.enqueue(userId, OutboxEvent.EventType.TRANSACTIONS_CREATED,
+                TransactionChangeDTO.created(transactions));
+        log.info("Created {} transactions in bulk for user: {}", ids.size(), userId);
+
+        return BulkTransactionResultDTO.builder()
+                .createdCount(ids.size())
+                .ids(ids)
+                .build();
+    }
+
+    private Transaction toEntity(TransactionDTO dto, User user, Category category, LocalDateTime now) {
+        return Transaction.builder()
+                .title(dto.getTitle())
+                .description(dto.getDescription())
+                .amount(dto.getAmount())
+                .type(Transaction.TransactionType.valueOf(dto.getType()))
+                .category(category)
+                .user(user)
+                .transactionDate(dto.getTransactionDate())
+                .paymentMethod(dto.getPaymentMethod() != null ? dto.getPaymentMethod() : "CASH")
+                .receiptUrl(dto.getReceiptUrl())
+                .tags(dto.getTags())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
     }
 
+    private void flushChunk(List<Transaction> chunk, List<Long> ids) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionRepository.saveAll(chunk);
+        transactionRepository.flush();
+        chunk.forEach(t -> ids.add(t.getId()));
+        // Keep the persistence context small; the rows are already written
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    @Transactional(readOnly = true)
     public TransactionDTO getTransactionById(Long userId, Long transactionId) {
         log.info("Fetching transaction with ID: {}", transactionId);
         
-        Transaction transaction = transactionRepository.findById(transactionId)
+        return transactionRepository.findDtoByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
-        
-        if (!transaction.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("Unauthorized access to transaction");
-        }
-        
-        return mapToDTO(transaction);
     }
 
+    @Transactional(readOnly = true)
     public List<TransactionDTO> getUserTransactions(Long userId) {
         log.info("Fetching transactions for user: {}", userId);
-        return transactionRepository.findByUserId(userId).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return transactionRepository.findDtosByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getUserTransactionsPage(Long userId, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        log.info("Fetching transaction page for user: {} (size {})", userId, pageSize);
+
+        Pageable window = KeysetCursor.window(pageSize);
+        List<TransactionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPageByUserId(userId, window);
+        } else {
+            KeysetCursor.Key<LocalDate> after = KeysetCursor.decodeKey(cursor, LocalDate::parse);
+            rows = transactionRepository.findPageByUserIdAfter(userId, after.value, after.id, window);
+        }
+
+        return KeysetCursor.page(rows, pageSize, TransactionDTO::getTransactionDate, TransactionDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
     public List<TransactionDTO> getTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
         log.info("Fetching transactions for user {} between {} and {}", userId, startDate, endDate);
-        return transactionRepository.findTransactionsBetweenDates(userId, startDate, endDate).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return transactionRepository.findTransactionsBetweenDates(userId, startDate, endDate);
     }
 
     public TransactionDTO updateTransaction(Long userId, Long transactionId, TransactionDTO transactionDTO) {
@@ -115,6 +219,8 @@ public class TransactionService {
             throw new ResourceNotFoundException("Unauthorized access to transaction");
         }
 
+        TransactionSnapshot before = TransactionSnapshot.from(transaction);
+
         if (transactionDTO.getTitle() != null) {
             transaction.setTitle(transactionDTO.getTitle());
         }
@@ -127,17 +233,18 @@ public class TransactionService {
         if (transactionDTO.getTransactionDate() != null) {
             transaction.setTransactionDate(transactionDTO.getTransactionDate());
         }
+        if (transactionDTO.getTags() != null) {
+            transaction.setTags(transactionDTO.getTags());
+            tagService.applyTags(transaction);
+        }
 
         Transaction updatedTransaction = transactionRepository.save(transaction);
+        rollupService.recordUpdated(updatedTransaction, before.getAmount(), before.getTransactionDate());
+        outboxService.enqueue(userId, OutboxEvent.EventType.TRANSACTION_UPDATED,
+                TransactionChangeDTO.updated(before, updatedTransaction));
         log.info("Transaction updated successfully with ID: {}", transactionId);
         
-        // Update affected budgets
-        try {
-            budgetService.onTransactionUpdated(updatedTransaction);
-        } catch (Exception e) {
-            log.warn("Failed to update budgets: {}", e.getMessage());
-        }
-        return mapToDTO(updatedTransaction);
+        return TransactionDTO.fromEntity(updatedTransaction);
     }
 
     public void deleteTransaction(Long userId, Long transactionId) {
@@ -149,30 +256,33 @@ public class TransactionService {
         if (!transaction.getUser().getId().equals(userId)) {
             throw new ResourceNotFoundException("Unauthorized access to transaction");
         }
-        
-        // Update affected budgets before deletion
-        try {
-            budgetService.onTransactionDeleted(transaction);
-        } catch (Exception e) {
-            log.warn("Failed to update budgets: {}", e.getMessage());
-        }
-        
+
+        TransactionSnapshot before = TransactionSnapshot.from(transaction);
+        rollupService.recordDeleted(transaction);
         transactionRepository.delete(transaction);
+        syncTombstoneRepository.save(SyncTombstone.of(userId, SyncTombstone.EntityType.TRANSACTION, transactionId));
+        outboxService.enqueue(userId, OutboxEvent.EventType.TRANSACTION_DELETED, TransactionChangeDTO.deleted(before));
         log.info("Transaction deleted successfully with ID: {}", transactionId);
     }
     
+    @Transactional(readOnly = true)
     public Page<TransactionDTO> searchTransactions(Long userId, TransactionSearchDTO searchDTO) {
         log.info("Searching transactions for user: {} with filters: {}", userId, searchDTO);
         
-        Sort sort = Sort.by(Sort.Direction.fromString(searchDTO.getSortDirection()), searchDTO.getSortBy());
-        Pageable pageable = PageRequest.of(searchDTO.getPage(), searchDTO.getSize(), sort);
-        
         Transaction.TransactionType type = null;
         if (searchDTO.getType() != null) {
             type = Transaction.TransactionType.valueOf(searchDTO.getType());
         }
+
+        String fullTextQuery = searchDTO.isFullText() ? toBooleanModeQuery(searchDTO.getSearchTerm()) : null;
+        if (fullTextQuery != null) {
+            return fullTextSearch(userId, fullTextQuery, type, searchDTO);
+        }
         
-        Page<Transaction> transactions = transactionRepository.searchTransactions(
+        Sort sort = Sort.by(Sort.Direction.fromString(searchDTO.getSortDirection()), searchDTO.getSortBy());
+        Pageable pageable = PageRequest.of(searchDTO.getPage(), searchDTO.getSize(), sort);
+        
+        return transactionRepository.searchTransactions(
             userId,
             searchDTO.getSearchTerm(),
             searchDTO.getStartDate(),
@@ -181,26 +291,84 @@ public class TransactionService {
             searchDTO.getMaxAmount(),
             type,
             searchDTO.getPaymentMethod(),
+            tagFilter(searchDTO),
+            tagFilterSize(searchDTO),
             pageable
         );
-        
-        return transactions.map(this::mapToDTO);
+    }
+
+    /**
+     * Relevance-ordered search through the FULLTEXT index.
+     * The index query pages matching ids; the page is then loaded with the usual projection.
+     */
+    private Page<TransactionDTO> fullTextSearch(Long userId, String query, Transaction.TransactionType type,
+                                                TransactionSearchDTO searchDTO) {
+        Pageable pageable = PageRequest.of(searchDTO.getPage(), searchDTO.getSize());
+
+        Page<TransactionSearchHit> hits = transactionRepository.fullTextSearch(
+            userId,
+            query,
+            searchDTO.getStartDate(),
+            searchDTO.getEndDate(),
+            searchDTO.getMinAmount(),
+            searchDTO.getMaxAmount(),
+            type != null ? type.name() : null,
+            searchDTO.getPaymentMethod(),
+            tagFilter(searchDTO),
+            tagFilterSize(searchDTO),
+            pageable
+        );
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        List<Long> ids = hits.getContent().stream().map(TransactionSearchHit::getId).toList();
+        Map<Long, TransactionDTO> byId = transactionRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(TransactionDTO::getId, Function.identity()));
+        List<TransactionDTO> ordered = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(ordered, pageable, hits.getTotalElements());
+    }
+
+    // An empty IN () list is invalid SQL, so an unused tag filter binds a placeholder
+    private List<String> tagFilter(TransactionSearchDTO searchDTO) {
+        List<String> tags = searchDTO.getTags();
+        return tags == null || tags.isEmpty() ? List.of("") : tags;
+    }
+
+    private int tagFilterSize(TransactionSearchDTO searchDTO) {
+        return searchDTO.getTags() == null ? 0 : searchDTO.getTags().size();
+    }
+
+    /**
+     * Turn free text into a boolean-mode expression where every word is required
+     * and matched as a prefix, e.g. "groc store" becomes "+groc* +store*".
+     * Words InnoDB does not index (shorter than its minimum token size, or on its
+     * default stopword list) are left out, since requiring one would match nothing.
+     * Returns null when no searchable word remains, so the search falls back to LIKE.
+     */
+    static String toBooleanModeQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+        String query = Arrays.stream(searchTerm.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> word.length() >= FULLTEXT_MIN_TOKEN_SIZE)
+                .filter(word -> !FULLTEXT_STOPWORDS.contains(word.toLowerCase(Locale.ROOT)))
+                .map(word -> "+" + word + "*")
+                .collect(Collectors.joining(" "));
+        return query.isEmpty() ? null : query;
     }
     
     public List<String> getUserTags(Long userId) {
         log.info("Fetching tags for user: {}", userId);
-        return transactionRepository.findDistinctTagsByUserId(userId)
-                .stream()
-                .filter(tags -> tags != null && !tags.trim().isEmpty())
-                .flatMap(tags -> Arrays.stream(tags.split(",")))
-                .map(String::trim)
-                .distinct()
-                .collect(Collectors.toList());
+        return tagService.getUserTags(userId);
     }
 
-    private TransactionDTO mapToDTO(Transaction transaction) {
-        TransactionDTO dto = modelMapper.map(transaction, TransactionDTO.class);
-        dto.setCategoryName(transaction.getCategory().getName());
-        return dto;
+    public List<TagUsageDTO> getTagUsage(Long userId) {
+        log.info("Fetching tag usage for user: {}", userId);
+        return tagService.getTagUsage(userId);
     }
 }
@@ -0,0 +1,13 @@
+-- Idempotency-Key header support for transaction writes
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body MEDIUMTEXT,
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    UNIQUE KEY uk_idempotency_user_key (user_id, idempotency_key),
+    INDEX idx_idempotency_created (created_at)
+);
@@ -0,0 +1,16 @@
+-- Transactional outbox for side effects of transaction writes (budgets, goals)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claimed_at DATETIME(6),
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    processed_at DATETIME(6),
+    INDEX idx_outbox_status_next (status, next_attempt_at, id),
+    INDEX idx_outbox_user (user_id, id)
+);
@@ -0,0 +1,2 @@
+-- Budgets take signed spend deltas from transaction writes; this records the last full SUM
+ALTER TABLE budgets ADD COLUMN spent_recalculated_at DATETIME(6) NULL;
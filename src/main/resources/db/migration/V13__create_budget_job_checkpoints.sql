@@ -0,0 +1,17 @@
+-- Per-shard progress of the nightly budget reconciliation, for resume and timing
+CREATE TABLE IF NOT EXISTS budget_job_checkpoints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    run_date DATE NOT NULL,
+    from_user_id BIGINT NOT NULL,
+    to_user_id BIGINT NOT NULL,
+    last_budget_id BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    budgets_checked INT NOT NULL DEFAULT 0,
+    budgets_updated INT NOT NULL DEFAULT 0,
+    duration_ms BIGINT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    started_at DATETIME(6),
+    completed_at DATETIME(6),
+    CONSTRAINT uk_budget_job_checkpoints_shard UNIQUE (run_date, from_user_id)
+);
+
@@ -0,0 +1,3 @@
+-- Notifications move to the table-backed id generator (see V5) so alert inserts can be batched
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'notifications', COALESCE(MAX(id), 0) + 51 FROM notifications;
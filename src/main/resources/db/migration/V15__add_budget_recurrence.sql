@@ -0,0 +1,12 @@
+-- Recurring budgets: the nightly rollover creates the next period from an ended one
+ALTER TABLE budgets
+    ADD COLUMN recurrence VARCHAR(20) NOT NULL DEFAULT 'NONE',
+    ADD COLUMN carry_over BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN carried_over_amount DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    ADD COLUMN rolled_over_at DATETIME(6) NULL;
+
+CREATE INDEX idx_budgets_rollover ON budgets (recurrence, rolled_over_at, end_date);
+
+-- Budgets move to the table-backed id generator (see V5) so rollover inserts can be batched
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'budgets', COALESCE(MAX(id), 0) + 51 FROM budgets;
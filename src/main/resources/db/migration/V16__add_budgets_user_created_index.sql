@@ -0,0 +1,2 @@
+-- Budget list pages, offset and keyset, are ordered by (created_at, id) within a user
+CREATE INDEX idx_budgets_user_created ON budgets (user_id, created_at, id);
@@ -0,0 +1,10 @@
+-- Daily spent/limit series per budget for trend charts. Fixed-width rows clustered on
+-- (budget_id, snapshot_date), so one budget's history is a single primary-key range read.
+CREATE TABLE IF NOT EXISTS budget_daily_snapshots (
+    budget_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    spent_amount DECIMAL(12, 2) NOT NULL,
+    limit_amount DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (budget_id, snapshot_date),
+    FOREIGN KEY (budget_id) REFERENCES budgets(id) ON DELETE CASCADE
+);
@@ -0,0 +1,2 @@
+-- How many times a reconciliation shard was started, to stop retrying failing shards
+ALTER TABLE budget_job_checkpoints ADD COLUMN attempts INT NOT NULL DEFAULT 0;
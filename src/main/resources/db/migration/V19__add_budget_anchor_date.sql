@@ -0,0 +1,3 @@
+-- First-period start of a recurring budget series; the rollover counts periods from it.
+-- Existing rows stay NULL and fall back to their own start_date.
+ALTER TABLE budgets ADD COLUMN anchor_date DATE NULL;
@@ -0,0 +1,10 @@
+-- Table-backed id generator used instead of AUTO_INCREMENT so that Hibernate can batch inserts
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(64) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+-- The pooled optimizer hands out the block ending at next_val first (allocationSize = 50),
+-- so seed one full block past the current maximum id.
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 51 FROM transactions;
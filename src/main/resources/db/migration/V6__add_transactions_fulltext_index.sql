@@ -0,0 +1,2 @@
+-- Full-text index backing POST /api/transactions/search with "fullText": true
+ALTER TABLE transactions ADD FULLTEXT INDEX ft_transactions_title_description (title, description);
@@ -0,0 +1,43 @@
+-- Normalized tag storage replacing lookups on the comma-separated transactions.tags column
+CREATE TABLE tags (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+
+    UNIQUE KEY uk_tags_user_name (user_id, name)
+);
+
+CREATE TABLE transaction_tags (
+    transaction_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+
+    PRIMARY KEY (transaction_id, tag_id),
+    FOREIGN KEY (transaction_id) REFERENCES transactions(id) ON DELETE CASCADE,
+    FOREIGN KEY (tag_id) REFERENCES tags(id) ON DELETE CASCADE,
+
+    INDEX idx_transaction_tags_tag (tag_id, transaction_id)
+);
+
+-- Backfill: split each comma-separated tags value into one row per tag.
+-- The value is turned into a JSON array ("a,b" -> ["a","b"]) and expanded with JSON_TABLE.
+INSERT IGNORE INTO tags (user_id, name)
+SELECT DISTINCT t.user_id, LEFT(TRIM(jt.name), 100)
+FROM transactions t
+     CROSS JOIN JSON_TABLE(
+         CONCAT('["', REPLACE(REPLACE(REPLACE(t.tags, '\\', '\\\\'), '"', '\\"'), ',', '","'), '"]'),
+         '$[*]' COLUMNS (name VARCHAR(255) PATH '$')
+     ) jt
+WHERE t.tags IS NOT NULL AND TRIM(jt.name) <> '';
+
+INSERT IGNORE INTO transaction_tags (transaction_id, tag_id)
+SELECT t.id, tg.id
+FROM transactions t
+     CROSS JOIN JSON_TABLE(
+         CONCAT('["', REPLACE(REPLACE(REPLACE(t.tags, '\\', '\\\\'), '"', '\\"'), ',', '","'), '"]'),
+         '$[*]' COLUMNS (name VARCHAR(255) PATH '$')
+     ) jt
+     JOIN tags tg ON tg.user_id = t.user_id AND tg.name = LEFT(TRIM(jt.name), 100)
+WHERE t.tags IS NOT NULL AND TRIM(jt.name) <> '';
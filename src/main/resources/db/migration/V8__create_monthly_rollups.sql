@@ -0,0 +1,23 @@
+-- Per user/month/category/type totals maintained alongside every transaction write
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    txn_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_monthly_rollups_key (user_id, month_start, category_id, type)
+);
+
+-- Backfill from existing transactions
+INSERT INTO monthly_rollups (user_id, month_start, category_id, type, total_amount, txn_count)
+SELECT t.user_id,
+       DATE_SUB(t.transaction_date, INTERVAL DAYOFMONTH(t.transaction_date) - 1 DAY),
+       t.category_id,
+       t.type,
+       SUM(t.amount),
+       COUNT(*)
+FROM transactions t
+GROUP BY t.user_id, DATE_SUB(t.transaction_date, INTERVAL DAYOFMONTH(t.transaction_date) - 1 DAY), t.category_id, t.type
+ON DUPLICATE KEY UPDATE total_amount = VALUES(total_amount), txn_count = VALUES(txn_count);
@@ -0,0 +1,15 @@
+-- Deleted rows, so delta sync clients can drop them locally
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    INDEX idx_sync_tombstones_user_deleted (user_id, deleted_at, id)
+);
+
+-- Keysets for GET /api/sync: (user, updated_at, id) per synced table
+CREATE INDEX idx_transactions_user_updated ON transactions (user_id, updated_at, id);
+CREATE INDEX idx_categories_user_updated ON categories (user_id, updated_at, id);
+CREATE INDEX idx_budgets_user_updated ON budgets (user_id, updated_at, id);
+CREATE INDEX idx_financial_goals_user_updated ON financial_goals (user_id, updated_at, id);
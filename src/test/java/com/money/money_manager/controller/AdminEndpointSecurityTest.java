@@ -0,0 +1,73 @@
+package com.money.money_manager.controller;
+
+import com.money.money_manager.config.JwtTokenProvider;
+import com.money.money_manager.config.SecurityConfig;
+import com.money.money_manager.service.BudgetReconciliationService;
+import com.money.money_manager.service.CustomUserDetailsService;
+import com.money.money_manager.service.DashboardCache;
+import com.money.money_manager.service.OutboxService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({OutboxController.class, BudgetJobController.class, CacheController.class})
+@Import(SecurityConfig.class)
+class AdminEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private BudgetReconciliationService budgetReconciliationService;
+
+    @MockBean
+    private DashboardCache dashboardCache;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testRetryFailed_ShouldBeForbiddenForNonAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/outbox/retry-failed"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testAdminReads_ShouldBeForbiddenForNonAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/outbox/stats")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/budget-jobs/latest")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/caches/dashboard")).andExpect(status().isForbidden());
+
+        verifyNoInteractions(outboxService, budgetReconciliationService, dashboardCache);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRetryFailed_ShouldBeAllowedForAdmin() throws Exception {
+        when(outboxService.retryFailed()).thenReturn(3);
+
+        mockMvc.perform(post("/api/admin/outbox/retry-failed"))
+                .andExpect(status().isOk());
+
+        verify(outboxService).retryFailed();
+    }
+}
@@ -0,0 +1,183 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.dto.TimeSeriesDTO;
+import com.money.money_manager.dto.TimeSeriesPointDTO;
+import com.money.money_manager.repository.MonthlyRollupRepository;
+import com.money.money_manager.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    @Test
+    void testGetTimeSeries_ShouldReadWholeMonthsFromRollupAndEdgesFromTransactions() {
+        // Given
+        when(monthlyRollupRepository.findMonthBuckets(USER_ID, date(2, 1), date(3, 1), null, null))
+                .thenReturn(List.of(
+                        row(date(2, 1), "EXPENSE", "100.00", 4),
+                        row(date(3, 1), "INCOME", "200.00", 1)));
+        when(transactionRepository.findDayBuckets(USER_ID, date(1, 15), date(1, 31), null, null))
+                .thenReturn(List.of(row(date(1, 20), "EXPENSE", "50.00", 1)));
+        when(transactionRepository.findDayBuckets(USER_ID, date(4, 1), date(4, 10), null, null))
+                .thenReturn(List.of(
+                        row(date(4, 3), "INCOME", "30.00", 1),
+                        row(date(4, 5), "EXPENSE", "20.00", 2)));
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 15), date(4, 10));
+
+        // Then: edge day rows are folded into their month buckets
+        List<TimeSeriesPointDTO> points = series.getPoints();
+        assertEquals(4, points.size());
+        assertPoint(points.get(0), date(1, 1), "0", "50.00", 1);
+        assertPoint(points.get(1), date(2, 1), "0", "100.00", 4);
+        assertPoint(points.get(2), date(3, 1), "200.00", "0", 1);
+        assertPoint(points.get(3), date(4, 1), "30.00", "20.00", 3);
+        assertEquals(new BigDecimal("230.00"), series.getTotalIncome());
+        assertEquals(new BigDecimal("170.00"), series.getTotalExpense());
+    }
+
+    @Test
+    void testGetTimeSeries_ShouldUseDayBucketsWithinOneMonth() {
+        // Given
+        when(transactionRepository.findDayBuckets(USER_ID, date(1, 10), date(1, 20), null, null))
+                .thenReturn(List.of(
+                        row(date(1, 12), "EXPENSE", "15.00", 1),
+                        row(date(1, 18), "EXPENSE", "25.00", 1)));
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 10), date(1, 20));
+
+        // Then
+        assertEquals(1, series.getPoints().size());
+        assertPoint(series.getPoints().get(0), date(1, 1), "0", "40.00", 2);
+        verifyNoInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void testGetTimeSeries_ShouldUseDayBucketsAcrossTwoPartialMonths() {
+        // Given: no whole month between Jan 31 and Feb 1
+        when(transactionRepository.findDayBuckets(USER_ID, date(1, 31), date(2, 1), null, null))
+                .thenReturn(List.of(
+                        row(date(1, 31), "EXPENSE", "10.00", 1),
+                        row(date(2, 1), "EXPENSE", "20.00", 1)));
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 31), date(2, 1));
+
+        // Then
+        assertEquals(2, series.getPoints().size());
+        assertPoint(series.getPoints().get(0), date(1, 1), "0", "10.00", 1);
+        assertPoint(series.getPoints().get(1), date(2, 1), "0", "20.00", 1);
+        verifyNoInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void testGetTimeSeries_ShouldNotQueryLeadingDaysWhenRangeStartsOnFirst() {
+        // Given
+        when(monthlyRollupRepository.findMonthBuckets(USER_ID, date(1, 1), date(2, 1), null, null))
+                .thenReturn(List.of());
+        when(transactionRepository.findDayBuckets(USER_ID, date(3, 1), date(3, 15), null, null))
+                .thenReturn(List.of());
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 1), date(3, 15));
+
+        // Then
+        assertEquals(3, series.getPoints().size());
+        verify(transactionRepository, times(1)).findDayBuckets(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetTimeSeries_ShouldNotQueryTrailingDaysWhenRangeEndsOnLastDayOfMonth() {
+        // Given
+        when(monthlyRollupRepository.findMonthBuckets(USER_ID, date(2, 1), date(3, 1), null, null))
+                .thenReturn(List.of());
+        when(transactionRepository.findDayBuckets(USER_ID, date(1, 15), date(1, 31), null, null))
+                .thenReturn(List.of());
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 15), date(3, 31));
+
+        // Then
+        assertEquals(3, series.getPoints().size());
+        verify(transactionRepository, times(1)).findDayBuckets(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetTimeSeries_ShouldReadOnlyRollupForWholeMonths() {
+        // Given: February 2024 ends on the 29th
+        when(monthlyRollupRepository.findMonthBuckets(USER_ID, date(1, 1), date(2, 1), null, null))
+                .thenReturn(List.of(row(date(2, 1), "INCOME", "500.00", 1)));
+
+        // When
+        TimeSeriesDTO series = monthly(date(1, 1), date(2, 29));
+
+        // Then
+        assertEquals(2, series.getPoints().size());
+        assertPoint(series.getPoints().get(1), date(2, 1), "500.00", "0", 1);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private TimeSeriesDTO monthly(LocalDate from, LocalDate to) {
+        return analyticsService.getTimeSeries(USER_ID, "month", from, to, null, null);
+    }
+
+    private static void assertPoint(TimeSeriesPointDTO point, LocalDate bucketStart,
+                                    String income, String expense, long count) {
+        assertEquals(bucketStart, point.getBucketStart());
+        assertEquals(0, new BigDecimal(income).compareTo(point.getIncome()));
+        assertEquals(0, new BigDecimal(expense).compareTo(point.getExpense()));
+        assertEquals(count, point.getTransactionCount());
+    }
+
+    private static LocalDate date(int month, int day) {
+        return LocalDate.of(2024, month, day);
+    }
+
+    private static MonthlyRollupRepository.BucketTotal row(LocalDate bucket, String type, String amount, long count) {
+        return new MonthlyRollupRepository.BucketTotal() {
+            @Override
+            public LocalDate getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public Long getTxnCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.repository.BudgetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetIntervalIndexTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long FOOD = 10L;
+    private static final Long RENT = 20L;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @InjectMocks
+    private BudgetIntervalIndex budgetIntervalIndex;
+
+    @Test
+    void testFindBudgetIds_ShouldReturnAllOverlappingPeriods() {
+        // Given
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenReturn(List.of(
+                period(1L, FOOD, date(1, 1), date(1, 10)),
+                period(2L, FOOD, date(1, 5), date(1, 15)),
+                period(3L, FOOD, date(1, 8), date(1, 20))));
+
+        // Then
+        assertEquals(Set.of(1L, 2L, 3L), find(FOOD, date(1, 9)));
+        assertEquals(Set.of(2L, 3L), find(FOOD, date(1, 12)));
+        assertEquals(Set.of(3L), find(FOOD, date(1, 18)));
+        assertEquals(Set.of(), find(FOOD, date(1, 21)));
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldFindLongPeriodBehindShorterLaterOnes() {
+        // Given: the yearly budget starts first, so the scan must pass the ended monthly ones to reach it
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenReturn(List.of(
+                period(1L, FOOD, date(1, 1), date(12, 31)),
+                period(2L, FOOD, date(2, 1), date(2, 5)),
+                period(3L, FOOD, date(3, 1), date(3, 5)),
+                period(4L, FOOD, date(3, 20), date(3, 25))));
+
+        // Then
+        assertEquals(Set.of(1L), find(FOOD, date(3, 10)));
+        assertEquals(Set.of(1L, 3L), find(FOOD, date(3, 3)));
+        assertEquals(Set.of(1L, 4L), find(FOOD, date(3, 22)));
+        assertEquals(Set.of(1L), find(FOOD, date(11, 1)));
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldIncludeStartAndEndDates() {
+        // Given
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenReturn(List.of(
+                period(1L, FOOD, date(4, 1), date(4, 30))));
+
+        // Then
+        assertEquals(Set.of(1L), find(FOOD, date(4, 1)));
+        assertEquals(Set.of(1L), find(FOOD, date(4, 30)));
+        assertEquals(Set.of(), find(FOOD, date(3, 31)));
+        assertEquals(Set.of(), find(FOOD, date(5, 1)));
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldMatchUncategorizedBudgetsForEveryCategory() {
+        // Given
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenReturn(List.of(
+                period(1L, null, date(1, 1), date(1, 31)),
+                period(2L, FOOD, date(1, 1), date(1, 31)),
+                period(3L, RENT, date(1, 1), date(1, 31))));
+
+        // Then
+        assertEquals(Set.of(1L, 2L), find(FOOD, date(1, 15)));
+        assertEquals(Set.of(1L, 3L), find(RENT, date(1, 15)));
+        assertEquals(Set.of(1L), find(99L, date(1, 15)));
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldLoadOnceUntilInvalidated() {
+        // Given
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenReturn(List.of(
+                period(1L, FOOD, date(1, 1), date(1, 31))));
+
+        // When
+        find(FOOD, date(1, 15));
+        find(FOOD, date(1, 16));
+        budgetIntervalIndex.invalidate(USER_ID);
+        find(FOOD, date(1, 17));
+
+        // Then
+        verify(budgetRepository, times(2)).findPeriodsByUserId(USER_ID);
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldNotCacheLoadRacingWithInvalidation() {
+        // Given: a budget write invalidates the user while the first load is running
+        when(budgetRepository.findPeriodsByUserId(USER_ID))
+                .thenAnswer(invocation -> {
+                    budgetIntervalIndex.invalidate(USER_ID);
+                    return List.of(period(1L, FOOD, date(1, 1), date(1, 31)));
+                })
+                .thenReturn(List.of(
+                        period(1L, FOOD, date(1, 1), date(1, 31)),
+                        period(2L, FOOD, date(1, 10), date(1, 20))));
+
+        // When
+        Set<Long> raced = find(FOOD, date(1, 15));
+        Set<Long> reloaded = find(FOOD, date(1, 15));
+
+        // Then: the racing load is served once but not kept
+        assertEquals(Set.of(1L), raced);
+        assertEquals(Set.of(1L, 2L), reloaded);
+        verify(budgetRepository, times(2)).findPeriodsByUserId(USER_ID);
+    }
+
+    @Test
+    void testFindBudgetIds_ShouldCacheLoadRacingWithOtherUsersInvalidation() {
+        // Given: another user's budget write lands while this user's index loads
+        when(budgetRepository.findPeriodsByUserId(USER_ID)).thenAnswer(invocation -> {
+            budgetIntervalIndex.invalidate(2L);
+            return List.of(period(1L, FOOD, date(1, 1), date(1, 31)));
+        });
+
+        // When
+        find(FOOD, date(1, 15));
+        find(FOOD, date(1, 16));
+
+        // Then
+        verify(budgetRepository, times(1)).findPeriodsByUserId(USER_ID);
+    }
+
+    private Set<Long> find(Long categoryId, LocalDate date) {
+        return new HashSet<>(budgetIntervalIndex.findBudgetIds(USER_ID, categoryId, date));
+    }
+
+    private static LocalDate date(int month, int day) {
+        return LocalDate.of(2024, month, day);
+    }
+
+    private static BudgetRepository.BudgetPeriod period(Long id, Long categoryId, LocalDate start, LocalDate end) {
+        return new BudgetRepository.BudgetPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package com.money.money_manager.service;
+
+import com.money.money_manager.entity.Budget;
+import com.money.money_manager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetRolloverServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 2, 1, 0, 30);
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    @Test
+    void testNextPeriod_ShouldCoverFollowingCalendarMonth() {
+        // Given
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 1, 1), date(2024, 1, 31), "1000.00", "400.00");
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 2, 1), NOW);
+
+        // Then
+        assertEquals(date(2024, 2, 1), next.getStartDate());
+        assertEquals(date(2024, 2, 29), next.getEndDate());
+        assertEquals(Budget.BudgetStatus.ACTIVE, next.getStatus());
+        assertEquals(BigDecimal.ZERO, next.getSpentAmount());
+        assertEquals(Budget.Recurrence.MONTHLY, next.getRecurrence());
+        assertEquals(NOW, next.getSpentRecalculatedAt());
+        assertSame(testUser, next.getUser());
+    }
+
+    @Test
+    void testNextPeriod_ShouldCoverFollowingQuarterAndYear() {
+        // Given
+        Budget quarterly = budget(Budget.Recurrence.QUARTERLY, date(2024, 1, 1), date(2024, 3, 31), "3000.00", "0.00");
+        Budget yearly = budget(Budget.Recurrence.YEARLY, date(2023, 1, 1), date(2023, 12, 31), "12000.00", "0.00");
+
+        // When
+        Budget nextQuarter = BudgetRolloverService.nextPeriod(quarterly, date(2024, 4, 1), NOW);
+        Budget nextYear = BudgetRolloverService.nextPeriod(yearly, date(2024, 1, 1), NOW);
+
+        // Then
+        assertEquals(date(2024, 4, 1), nextQuarter.getStartDate());
+        assertEquals(date(2024, 6, 30), nextQuarter.getEndDate());
+        assertEquals(date(2024, 1, 1), nextYear.getStartDate());
+        assertEquals(date(2024, 12, 31), nextYear.getEndDate());
+    }
+
+    @Test
+    void testNextPeriod_ShouldKeepMonthEndAnchorAcrossShortMonths() {
+        // Given: a series starting on Jan 31, rolled over three times across February and April
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 1, 31), date(2024, 2, 28), "1000.00", "0.00");
+
+        // When
+        Budget first = BudgetRolloverService.nextPeriod(source, date(2024, 2, 29), NOW);
+        Budget second = BudgetRolloverService.nextPeriod(first, date(2024, 3, 31), NOW);
+        Budget third = BudgetRolloverService.nextPeriod(second, date(2024, 4, 30), NOW);
+
+        // Then: starts clamp in short months but return to the 31st, with no gaps between periods
+        assertEquals(date(2024, 2, 29), first.getStartDate());
+        assertEquals(date(2024, 3, 30), first.getEndDate());
+        assertEquals(date(2024, 3, 31), second.getStartDate());
+        assertEquals(date(2024, 4, 29), second.getEndDate());
+        assertEquals(date(2024, 4, 30), third.getStartDate());
+        assertEquals(date(2024, 5, 30), third.getEndDate());
+        assertEquals(date(2024, 1, 31), third.getAnchorDate());
+    }
+
+    @Test
+    void testNextPeriod_ShouldCountSkippedPeriodsFromAnchor() {
+        // Given: a Jan 31 series whose February period ended two months before the job ran
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 2, 29), date(2024, 3, 30), "1000.00", "0.00");
+        source.setAnchorDate(date(2024, 1, 31));
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 5, 15), NOW);
+
+        // Then
+        assertEquals(date(2024, 4, 30), next.getStartDate());
+        assertEquals(date(2024, 5, 30), next.getEndDate());
+    }
+
+    @Test
+    void testNextPeriod_ShouldSkipEndedPeriodsWithoutCarryOver() {
+        // Given: the job did not run for two months
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 1, 1), date(2024, 1, 31), "1000.00", "400.00");
+        source.setCarryOver(true);
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 4, 10), NOW);
+
+        // Then
+        assertEquals(date(2024, 4, 1), next.getStartDate());
+        assertEquals(date(2024, 4, 30), next.getEndDate());
+        assertEquals(new BigDecimal("1000.00"), next.getLimitAmount());
+        assertEquals(0, next.getCarriedOverAmount().signum());
+    }
+
+    @Test
+    void testNextPeriod_ShouldCarryOverUnspentAmount() {
+        // Given
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 1, 1), date(2024, 1, 31), "1000.00", "700.00");
+        source.setCarryOver(true);
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 2, 1), NOW);
+
+        // Then
+        assertEquals(new BigDecimal("1300.00"), next.getLimitAmount());
+        assertEquals(new BigDecimal("300.00"), next.getCarriedOverAmount());
+    }
+
+    @Test
+    void testNextPeriod_ShouldNotCarryOverWhenDisabled() {
+        // Given
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 1, 1), date(2024, 1, 31), "1000.00", "700.00");
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 2, 1), NOW);
+
+        // Then
+        assertEquals(new BigDecimal("1000.00"), next.getLimitAmount());
+        assertEquals(0, next.getCarriedOverAmount().signum());
+    }
+
+    @Test
+    void testNextPeriod_ShouldKeepBaseLimitAcrossRepeatedRollovers() {
+        // Given: 1000 base limit plus 300 carried in, of which 1250 was spent
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 2, 1), date(2024, 2, 29), "1300.00", "1250.00");
+        source.setCarryOver(true);
+        source.setCarriedOverAmount(new BigDecimal("300.00"));
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 3, 1), NOW);
+
+        // Then: only this period's 50 unspent carries, on top of the base 1000
+        assertEquals(new BigDecimal("1050.00"), next.getLimitAmount());
+        assertEquals(new BigDecimal("50.00"), next.getCarriedOverAmount());
+    }
+
+    @Test
+    void testNextPeriod_ShouldCarryNothingFromExceededBudget() {
+        // Given
+        Budget source = budget(Budget.Recurrence.MONTHLY, date(2024, 2, 1), date(2024, 2, 29), "1200.00", "1500.00");
+        source.setCarryOver(true);
+        source.setCarriedOverAmount(new BigDecimal("200.00"));
+        source.setStatus(Budget.BudgetStatus.EXCEEDED);
+
+        // When
+        Budget next = BudgetRolloverService.nextPeriod(source, date(2024, 3, 1), NOW);
+
+        // Then
+        assertEquals(new BigDecimal("1000.00"), next.getLimitAmount());
+        assertEquals(0, next.getCarriedOverAmount().signum());
+        assertEquals(Budget.BudgetStatus.ACTIVE, next.getStatus());
+    }
+
+    private Budget budget(Budget.Recurrence recurrence, LocalDate start, LocalDate end, String limit, String spent) {
+        return Budget.builder()
+                .id(1L)
+                .user(testUser)
+                .name("Groceries")
+                .limitAmount(new BigDecimal(limit))
+                .spentAmount(new BigDecimal(spent))
+                .startDate(start)
+                .endDate(end)
+                .status(Budget.BudgetStatus.ACTIVE)
+                .thresholdPercent(80)
+                .recurrence(recurrence)
+                .build();
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
@@ -1,7 +1,12 @@
 package com.money.money_manager.service;
 
+import com.money.money_manager.dto.TransactionChangeDTO;
+import com.money.money_manager.dto.TransactionSnapshot;
 import com.money.money_manager.entity.Budget;
+import com.money.money_manager.entity.Transaction;
 import com.money.money_manager.entity.User;
+import com.money.money_manager.event.BudgetStatusChangedEvent;
+import com.money.money_manager.repository.BudgetDailySnapshotRepository;
 import com.money.money_manager.repository.BudgetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,12 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,7 +35,16 @@ class BudgetServiceTest {
     private BudgetRepository budgetRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BudgetIntervalIndex budgetIntervalIndex;
+
+    @Mock
+    private BudgetDailySnapshotRepository budgetDailySnapshotRepository;
+
+    @Mock
+    private BudgetForecastService budgetForecastService;
 
     @InjectMocks
     private BudgetService budgetService;
@@ -87,6 +107,7 @@ class BudgetServiceTest {
         // Then
         assertEquals(Budget.BudgetStatus.EXCEEDED, testBudget.getStatus());
         assertEquals(exceededAmount, testBudget.getSpentAmount());
+        verify(eventPublisher).publishEvent(any(BudgetStatusChangedEvent.class));
     }
 
     @Test
@@ -115,4 +136,83 @@ class BudgetServiceTest {
         // Then
         assertTrue(isExceeded);
     }
+
+    @Test
+    void testOnTransactionsChanged_ShouldApplyDeltaForChangeAfterRecalculation() {
+        // Given
+        LocalDateTime recalculatedAt = LocalDateTime.now().minusHours(1);
+        testBudget.setSpentRecalculatedAt(recalculatedAt);
+        TransactionChangeDTO change = expenseCreated(new BigDecimal("100.00"), recalculatedAt.plusSeconds(1));
+        when(budgetIntervalIndex.findBudgetIds(eq(1L), eq(5L), any())).thenReturn(List.of(1L));
+        when(budgetRepository.findAllById(any())).thenReturn(List.of(testBudget));
+        when(budgetRepository.findSpentAmountById(1L)).thenReturn(new BigDecimal("600.00"));
+        when(budgetRepository.save(any(Budget.class))).thenReturn(testBudget);
+
+        // When
+        int updated = budgetService.onTransactionsChanged(1L, List.of(change));
+
+        // Then
+        assertEquals(1, updated);
+        verify(budgetRepository).addToSpentAmount(eq(1L), eq(new BigDecimal("100.00")), any());
+        verify(budgetRepository, never()).calculateSpentAmount(any(), any(), any(), any());
+        assertEquals(new BigDecimal("600.00"), testBudget.getSpentAmount());
+    }
+
+    @Test
+    void testOnTransactionsChanged_ShouldSkipChangeWellBeforeRecalculation() {
+        // Given
+        LocalDateTime recalculatedAt = LocalDateTime.now().minusMinutes(1);
+        testBudget.setSpentRecalculatedAt(recalculatedAt);
+        TransactionChangeDTO change = expenseCreated(new BigDecimal("100.00"),
+                recalculatedAt.minus(BudgetService.RECALCULATION_SAFETY_MARGIN).minusSeconds(1));
+        when(budgetIntervalIndex.findBudgetIds(eq(1L), eq(5L), any())).thenReturn(List.of(1L));
+        when(budgetRepository.findAllById(any())).thenReturn(List.of(testBudget));
+
+        // When
+        int updated = budgetService.onTransactionsChanged(1L, List.of(change));
+
+        // Then: the amount is untouched, but the cached forecast still has to go
+        assertEquals(0, updated);
+        verify(budgetForecastService).invalidate(Set.of(1L));
+        verify(budgetRepository, never()).addToSpentAmount(any(), any(), any());
+        verify(budgetRepository, never()).calculateSpentAmount(any(), any(), any(), any());
+        assertEquals(new BigDecimal("500.00"), testBudget.getSpentAmount());
+    }
+
+    @Test
+    void testOnTransactionsChanged_ShouldRecountWhenChangeMayHaveCommittedAfterRecalculation() {
+        // Given: stamped just before the recalculation started, committed after it read the transactions
+        LocalDateTime recalculatedAt = LocalDateTime.now().minusMinutes(1);
+        testBudget.setSpentRecalculatedAt(recalculatedAt);
+        TransactionChangeDTO change = expenseCreated(new BigDecimal("100.00"), recalculatedAt.minusSeconds(2));
+        when(budgetIntervalIndex.findBudgetIds(eq(1L), eq(5L), any())).thenReturn(List.of(1L));
+        when(budgetRepository.findAllById(any())).thenReturn(List.of(testBudget));
+        when(budgetRepository.calculateSpentAmount(any(), any(), any(), any()))
+                .thenReturn(new BigDecimal("600.00"));
+        when(budgetRepository.save(any(Budget.class))).thenReturn(testBudget);
+
+        // When
+        int updated = budgetService.onTransactionsChanged(1L, List.of(change));
+
+        // Then: recounted once from the committed rows, not skipped and not added on top
+        assertEquals(1, updated);
+        verify(budgetRepository, never()).addToSpentAmount(any(), any(), any());
+        assertEquals(new BigDecimal("600.00"), testBudget.getSpentAmount());
+        assertTrue(testBudget.getSpentRecalculatedAt().isAfter(recalculatedAt));
+    }
+
+    private TransactionChangeDTO expenseCreated(BigDecimal amount, LocalDateTime changedAt) {
+        TransactionSnapshot expense = TransactionSnapshot.builder()
+                .id(10L)
+                .type(Transaction.TransactionType.EXPENSE)
+                .categoryId(5L)
+                .amount(amount)
+                .transactionDate(LocalDate.now())
+                .build();
+        TransactionChangeDTO change = TransactionChangeDTO.builder()
+                .after(new ArrayList<>(List.of(expense)))
+                .build();
+        change.setChangedAt(changedAt);
+        return change;
+    }
 }
\ No newline at end of file